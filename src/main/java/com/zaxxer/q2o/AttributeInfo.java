@@ -18,6 +18,11 @@ abstract class AttributeInfo
    protected String name;
 
    final Field field;
+   /**
+    * The fields leading from the entity to the &#64;Embeddable holding this attribute, outermost first. Empty if the
+    * attribute belongs to the entity itself.
+    */
+   final Field[] embeddingPath;
    private Class<?> type;
 
    protected boolean isDelimited;
@@ -27,6 +32,8 @@ abstract class AttributeInfo
    protected String delimitedTableName;
    EnumType enumType;
    Map<Object, Object> enumConstants;
+   /** not null if the attribute is annotated with {@link Deduplicate}. */
+   StringDeduplicator deduplicator;
    protected AttributeConverter converter;
    protected String caseSensitiveColumnName;
    protected boolean isGeneratedId;
@@ -43,16 +50,27 @@ abstract class AttributeInfo
    protected boolean isManyToManyAnnotated;
    protected boolean isManyToOneAnnotated;
    protected boolean isOneToOneAnnotated;
+   /** empty if the attribute is no relationship or the owning side of it. */
+   protected String mappedBy = "";
    private boolean joinWithSecondTable;
    private JoinColumn joinColumnAnnotation;
+   private JoinTable joinTableAnnotation;
    private Column columnAnnotation;
    private Class<?> actualType;
    private String tableName;
 
    AttributeInfo(final Field field, final Class<?> ownerClazz) {
+      this(field, ownerClazz, new Field[0]);
+   }
+
+   AttributeInfo(final Field field, final Class<?> ownerClazz, final Field[] embeddingPath) {
       this.field = field;
       this.ownerClazz = ownerClazz;
+      this.embeddingPath = embeddingPath;
       extractFieldName(field);
+      for (int i = embeddingPath.length - 1; i >= 0; i--) {
+         name = embeddingPath[i].getName() + "." + name;
+      }
       if (isToBeConsidered()) {
          adjustType(field.getType());
          extractAnnotations();
@@ -161,7 +179,8 @@ abstract class AttributeInfo
             }
             else {
                // CLARIFY Dead code? Never reached by tests.
-               setColumnName(name);
+               // Attributes of embeddables default to their own name, not their path.
+               setColumnName(embeddingPath.length == 0 ? name : field.getName());
             }
          }
       }
@@ -190,10 +209,17 @@ abstract class AttributeInfo
          isTransient = true;
          toBeConsidered = false;
       }
-      final Column columnAnnotation = extractColumnAnnotation();
+      final Column columnAnnotation = extractOverriddenColumnAnnotation();
       if (columnAnnotation != null) {
          isColumnAnnotated = true;
       }
+      final Deduplicate deduplicate = extractDeduplicateAnnotation();
+      if (deduplicate != null) {
+         if (type != String.class) {
+            throw new RuntimeException("@Deduplicate is only supported on String attributes: " + ownerClazz.getName() + " " + field.getName());
+         }
+         deduplicator = new StringDeduplicator(deduplicate.maxEntries());
+      }
       final JoinColumns joinColumns = extractJoinColumnsAnnotation();
       if (joinColumns != null) {
          isJoinColumnsAnnotated = true;
@@ -206,6 +232,7 @@ abstract class AttributeInfo
    private void extractRelationship() {
       final OneToMany oneToMany = extractOneToManyAnnotation();
       if (oneToMany != null) {
+         mappedBy = oneToMany.mappedBy();
          if (oneToMany.mappedBy().isEmpty()) {
             isOneToManyAnnotated = true;
             toBeConsidered = true;
@@ -220,6 +247,8 @@ abstract class AttributeInfo
          final ManyToMany manyToMany = extractManyToManyAnnotation();
          if (manyToMany != null) {
             isManyToManyAnnotated = true;
+            mappedBy = manyToMany.mappedBy();
+            joinTableAnnotation = extractJoinTableAnnotation();
             toBeConsidered = false;
             initializeJoinWithSecondTable();
          }
@@ -233,6 +262,7 @@ abstract class AttributeInfo
                final OneToOne oneToOne = extractOneToOneAnnotation();
                if (oneToOne != null) {
                   isOneToOneAnnotated = true;
+                  mappedBy = oneToOne.mappedBy();
                   initializeJoinWithSecondTable();
                }
             }
@@ -295,6 +325,8 @@ abstract class AttributeInfo
 
    protected abstract ManyToMany extractManyToManyAnnotation();
 
+   protected abstract JoinTable extractJoinTableAnnotation();
+
    protected abstract OneToMany extractOneToManyAnnotation();
 
    protected abstract JoinColumns extractJoinColumnsAnnotation();
@@ -309,6 +341,8 @@ abstract class AttributeInfo
 
    protected abstract Id extractIdAnnotation();
 
+   protected abstract Deduplicate extractDeduplicateAnnotation();
+
    private void processConvertAnnotation()  {
       final Convert convertAnnotation = extractConvertAnnotation();
       if (convertAnnotation != null) {
@@ -332,7 +366,7 @@ abstract class AttributeInfo
     * Processes &#64;Column annotated fields.
     */
    private void processColumnAnnotation() {
-      columnAnnotation = extractColumnAnnotation();
+      columnAnnotation = extractOverriddenColumnAnnotation();
       final String columnName = columnAnnotation.name();
       setColumnName(columnName);
 
@@ -342,6 +376,56 @@ abstract class AttributeInfo
 
    protected abstract Column extractColumnAnnotation();
 
+   /**
+    * @return the column of an &#64;AttributeOverride on the embedding path, the outermost one winning, or else the
+    * attribute's own &#64;Column annotation.
+    */
+   private Column extractOverriddenColumnAnnotation() {
+      for (int i = 0; i < embeddingPath.length; i++) {
+         final StringBuilder relativeName = new StringBuilder();
+         for (int j = i + 1; j < embeddingPath.length; j++) {
+            relativeName.append(embeddingPath[j].getName()).append('.');
+         }
+         relativeName.append(field.getName());
+         final AttributeOverrides overrides = embeddingPath[i].getDeclaredAnnotation(AttributeOverrides.class);
+         final AttributeOverride[] overrideArray = overrides != null
+            ? overrides.value()
+            : embeddingPath[i].getDeclaredAnnotationsByType(AttributeOverride.class);
+         for (final AttributeOverride override : overrideArray) {
+            if (override.name().contentEquals(relativeName)) {
+               return override.column();
+            }
+         }
+      }
+      return extractColumnAnnotation();
+   }
+
+   /**
+    * @param create whether to instantiate embeddables on the path that are null.
+    * @return the object holding the attribute's field: the target itself or the innermost embeddable. null if an
+    * embeddable on the path is null and {@code create} is false.
+    */
+   Object getEmbeddedOwner(final Object target, final boolean create) throws IllegalAccessException {
+      Object owner = target;
+      for (final Field embeddingField : embeddingPath) {
+         Object embedded = embeddingField.get(owner);
+         if (embedded == null) {
+            if (!create) {
+               return null;
+            }
+            try {
+               embedded = embeddingField.getType().newInstance();
+            }
+            catch (InstantiationException e) {
+               throw new RuntimeException(e);
+            }
+            embeddingField.set(owner, embedded);
+         }
+         owner = embedded;
+      }
+      return owner;
+   }
+
    protected void processJoinColumnAnnotation() {
       final JoinColumn joinColumnAnnotation = extractJoinColumnAnnotation();
       if (isSelfJoinField()) {
@@ -516,6 +600,46 @@ abstract class AttributeInfo
       return !isTransient && toBeConsidered;
    }
 
+   boolean isRelationship() {
+      return isOneToManyAnnotated || isManyToManyAnnotated || isManyToOneAnnotated || isOneToOneAnnotated;
+   }
+
+   boolean isToManyRelationship() {
+      return isOneToManyAnnotated || isManyToManyAnnotated;
+   }
+
+   String getMappedBy() {
+      return mappedBy;
+   }
+
+   /**
+    * @return null if the attribute has no &#64;JoinColumn annotation.
+    */
+   JoinColumn getJoinColumnAnnotation() {
+      return joinColumnAnnotation;
+   }
+
+   /**
+    * @return null if the attribute is no &#64;ManyToMany relationship with a &#64;JoinTable annotation.
+    */
+   JoinTable getJoinTableAnnotation() {
+      return joinTableAnnotation;
+   }
+
+   /**
+    * @return the entity class on the other side of a relationship, the element type of collection valued ones.
+    */
+   Class<?> getRelationshipTargetType() {
+      if (!Collection.class.isAssignableFrom(type)) {
+         return type;
+      }
+      final Type typeArg = ((ParameterizedType) field.getGenericType()).getActualTypeArguments()[0];
+      if (!(typeArg instanceof Class)) {
+         throw new RuntimeException("Collection element type of " + ownerClazz.getName() + " " + name + " must be an entity class");
+      }
+      return (Class<?>) typeArg;
+   }
+
    boolean isJoinFieldWithSecondTable() {
       return joinWithSecondTable;
    }
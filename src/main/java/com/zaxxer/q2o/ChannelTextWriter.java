@@ -0,0 +1,92 @@
+package com.zaxxer.q2o;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encodes text as UTF-8 straight into a {@link WritableByteChannel}. Characters are collected in a small char buffer
+ * and encoded into a direct byte buffer that is written to the channel whenever it is full. The buffers are kept per
+ * thread and reused by the next writer on that thread. A writer must not be used after {@link #finish()}.
+ */
+final class ChannelTextWriter {
+
+   private static final int CHAR_BUFFER_SIZE = 8 * 1024;
+   private static final int BYTE_BUFFER_SIZE = 64 * 1024;
+   private static final ThreadLocal<ByteBuffer> BYTE_BUFFERS = ThreadLocal.withInitial(() -> ByteBuffer.allocateDirect(BYTE_BUFFER_SIZE));
+   private static final ThreadLocal<CharBuffer> CHAR_BUFFERS = ThreadLocal.withInitial(() -> CharBuffer.allocate(CHAR_BUFFER_SIZE));
+
+   private final WritableByteChannel channel;
+   private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+   private final CharBuffer chars;
+   private final ByteBuffer bytes;
+
+   ChannelTextWriter(final WritableByteChannel channel) {
+      this.channel = channel;
+      this.chars = CHAR_BUFFERS.get();
+      this.bytes = BYTE_BUFFERS.get();
+      chars.clear();
+      bytes.clear();
+   }
+
+   void write(final char c) throws IOException {
+      if (!chars.hasRemaining()) {
+         encode(false);
+      }
+      chars.put(c);
+   }
+
+   void write(final String s) throws IOException {
+      int offset = 0;
+      final int length = s.length();
+      while (offset < length) {
+         if (!chars.hasRemaining()) {
+            encode(false);
+         }
+         final int count = Math.min(chars.remaining(), length - offset);
+         chars.put(s, offset, offset + count);
+         offset += count;
+      }
+   }
+
+   /**
+    * Encode and write everything still buffered.
+    */
+   void finish() throws IOException {
+      encode(true);
+      while (encoder.flush(bytes).isOverflow()) {
+         drain();
+      }
+      drain();
+   }
+
+   private void encode(final boolean endOfInput) throws IOException {
+      chars.flip();
+      while (true) {
+         final CoderResult result = encoder.encode(chars, bytes, endOfInput);
+         if (result.isOverflow()) {
+            drain();
+         }
+         else if (result.isUnderflow()) {
+            break;
+         }
+         else {
+            result.throwException();
+         }
+      }
+      // keeps a dangling high surrogate for the next round
+      chars.compact();
+   }
+
+   private void drain() throws IOException {
+      bytes.flip();
+      while (bytes.hasRemaining()) {
+         channel.write(bytes);
+      }
+      bytes.clear();
+   }
+}
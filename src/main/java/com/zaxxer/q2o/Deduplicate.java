@@ -0,0 +1,24 @@
+package com.zaxxer.q2o;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a String attribute whose values repeat a lot, e. g. status codes, country or currency codes. Equal values read
+ * from the database are then shared between the loaded objects instead of being held as separate String copies.
+ * <p>
+ * Deduplication uses a bounded per attribute table. When more distinct values than {@link #maxEntries()} show up, some
+ * of them are simply not shared, so the annotation does no harm on a column that turns out to be not as repetitive
+ * as expected.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface Deduplicate {
+
+   /**
+    * Number of distinct values that can be shared at most. Rounded up to the next power of two.
+    */
+   int maxEntries() default 1024;
+}
@@ -0,0 +1,76 @@
+package com.zaxxer.q2o;
+
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
+import javax.persistence.NamedSubgraph;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A validated {@link NamedEntityGraph} of an entity: the tree of relationship attributes to fetch along with it. Each
+ * node is fetched by one follow-up query per chunk of entities on its level, see {@link EntityGraphLoader}.
+ */
+final class EntityGraphInfo {
+
+   final String name;
+   final List<Node> nodes;
+
+   static final class Node {
+      final String attributeName;
+      /** empty if the related entities' relationships are not fetched. */
+      final List<Node> subgraph;
+
+      private Node(final String attributeName, final List<Node> subgraph) {
+         this.attributeName = attributeName;
+         this.subgraph = subgraph;
+      }
+   }
+
+   /**
+    * @return a node fetching a single relationship without subgraph.
+    */
+   static Node node(final String attributeName) {
+      return new Node(attributeName, Collections.emptyList());
+   }
+
+   EntityGraphInfo(final Class<?> declaringClass, final NamedEntityGraph graph) {
+      this.name = graph.name().isEmpty() ? declaringClass.getSimpleName() : graph.name();
+      final Map<String, NamedSubgraph> subgraphs = new HashMap<>();
+      for (final NamedSubgraph subgraph : graph.subgraphs()) {
+         if (subgraphs.put(subgraph.name(), subgraph) != null) {
+            throw new RuntimeException("Duplicate @NamedSubgraph " + subgraph.name() + " in @NamedEntityGraph " + name
+               + " on " + declaringClass.getName());
+         }
+      }
+      this.nodes = toNodes(declaringClass, graph.attributeNodes(), subgraphs, new HashSet<>());
+   }
+
+   private List<Node> toNodes(final Class<?> declaringClass, final NamedAttributeNode[] attributeNodes,
+                              final Map<String, NamedSubgraph> subgraphs, final Set<String> path) {
+      final List<Node> nodes = new ArrayList<>(attributeNodes.length);
+      for (final NamedAttributeNode attributeNode : attributeNodes) {
+         List<Node> subgraphNodes = Collections.emptyList();
+         final String subgraphName = attributeNode.subgraph();
+         if (!subgraphName.isEmpty()) {
+            final NamedSubgraph subgraph = subgraphs.get(subgraphName);
+            if (subgraph == null) {
+               throw new RuntimeException("@NamedEntityGraph " + name + " on " + declaringClass.getName()
+                  + " refers to unknown @NamedSubgraph " + subgraphName);
+            }
+            if (!path.add(subgraphName)) {
+               throw new RuntimeException("@NamedSubgraph " + subgraphName + " of @NamedEntityGraph " + name + " on "
+                  + declaringClass.getName() + " contains itself");
+            }
+            subgraphNodes = toNodes(declaringClass, subgraph.attributeNodes(), subgraphs, path);
+            path.remove(subgraphName);
+         }
+         nodes.add(new Node(attributeNode.value(), subgraphNodes));
+      }
+      return Collections.unmodifiableList(nodes);
+   }
+}
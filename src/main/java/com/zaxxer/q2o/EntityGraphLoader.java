@@ -0,0 +1,353 @@
+package com.zaxxer.q2o;
+
+import javax.persistence.JoinColumn;
+import javax.persistence.JoinTable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Fetches the relationships named by an {@link EntityGraphInfo} for already loaded entities. Every node of the graph
+ * costs one query per {@link #CHUNK_SIZE} distinct keys, independent of the number of entities, and related entities
+ * are fetched only once per node even if several entities refer to them.
+ * <p>
+ * Supported are &#64;ManyToOne and &#64;OneToOne relationships with a &#64;JoinColumn in the entity's table, and
+ * &#64;OneToMany and inverse &#64;OneToOne relationships with a &#64;JoinColumn in the related entity's table, either
+ * declared on the relationship itself or on the attribute named by {@code mappedBy}. Join column values not mapped to
+ * an attribute are read by an additional query. &#64;ManyToMany relationships need a &#64;JoinTable with a single join
+ * column and inverse join column on the owning side; the link rows and the related entities are read by one query
+ * each.
+ */
+final class EntityGraphLoader {
+
+   /** Keys bound per query, kept below the IN list limits of common databases. */
+   static final int CHUNK_SIZE = 500;
+
+   private EntityGraphLoader() {
+   }
+
+   static void load(final Connection connection, final Class<?> clazz, final List<?> entities, final List<EntityGraphInfo.Node> nodes) throws SQLException {
+      if (entities.isEmpty()) {
+         return;
+      }
+      final Introspected introspected = Introspector.getIntrospected(clazz);
+      for (final EntityGraphInfo.Node node : nodes) {
+         final AttributeInfo info = introspected.getRelationshipFcInfo(node.attributeName);
+         if (info == null) {
+            // basic attributes are always fetched
+            continue;
+         }
+         final Class<?> targetClass = info.getRelationshipTargetType();
+         final List<?> related;
+         if (info.isManyToManyAnnotated) {
+            related = loadManyToMany(connection, introspected, entities, info);
+         }
+         else if (!info.getMappedBy().isEmpty()) {
+            final AttributeInfo inverseInfo = Introspector.getIntrospected(targetClass).getRelationshipFcInfo(info.getMappedBy());
+            if (inverseInfo == null || inverseInfo.getJoinColumnAnnotation() == null) {
+               throw new RuntimeException("mappedBy of " + clazz.getName() + " " + info.getName()
+                  + " must name an attribute of " + targetClass.getName() + " with a @JoinColumn");
+            }
+            related = loadInverse(connection, introspected, entities, info, inverseInfo.getJoinColumnAnnotation());
+         }
+         else if (info.getJoinColumnAnnotation() == null) {
+            throw new RuntimeException("Fetching " + clazz.getName() + " " + info.getName()
+               + " requires a @JoinColumn on it or on the attribute named by mappedBy");
+         }
+         else if (info.isToManyRelationship()) {
+            related = loadInverse(connection, introspected, entities, info, info.getJoinColumnAnnotation());
+         }
+         else {
+            related = loadToOne(connection, introspected, entities, info);
+         }
+         load(connection, targetClass, related, node.subgraph);
+      }
+   }
+
+   /**
+    * Join column in the entity's table, referring to the related entity.
+    */
+   private static List<?> loadToOne(final Connection connection, final Introspected introspected, final List<?> entities,
+                                    final AttributeInfo info) throws SQLException {
+      final JoinColumn joinColumn = info.getJoinColumnAnnotation();
+      final Class<?> targetClass = info.getRelationshipTargetType();
+      final Introspected targetIntrospected = Introspector.getIntrospected(targetClass);
+      final AttributeInfo referencedInfo = referencedInfo(targetIntrospected, joinColumn);
+
+      final Object[] foreignKeys = new Object[entities.size()];
+      final AttributeInfo foreignKeyInfo = introspected.getFieldColumnInfo(joinColumn.name());
+      if (foreignKeyInfo != null) {
+         for (int i = 0; i < foreignKeys.length; i++) {
+            foreignKeys[i] = introspected.get(entities.get(i), foreignKeyInfo);
+         }
+      }
+      else {
+         final AttributeInfo idInfo = singleIdInfo(introspected);
+         final Map<Object, Object> idToForeignKey = readColumnPairs(connection, introspected.getDelimitedTableName(),
+            idInfo.getDelimitedColumnName(), joinColumn.name(), idInfo.getDelimitedColumnName(), values(introspected, entities, idInfo));
+         for (int i = 0; i < foreignKeys.length; i++) {
+            foreignKeys[i] = idToForeignKey.get(key(introspected.get(entities.get(i), idInfo)));
+         }
+      }
+
+      final Map<Object, Object> distinctKeys = new LinkedHashMap<>();
+      for (final Object foreignKey : foreignKeys) {
+         if (foreignKey != null) {
+            distinctKeys.putIfAbsent(key(foreignKey), foreignKey);
+         }
+      }
+      final List<?> targets = selectIn(connection, targetClass, referencedInfo.getDelimitedColumnName(), distinctKeys.values());
+      final Map<Object, Object> targetsByKey = new HashMap<>();
+      for (final Object target : targets) {
+         targetsByKey.put(key(targetIntrospected.get(target, referencedInfo)), target);
+      }
+      for (int i = 0; i < foreignKeys.length; i++) {
+         final Object target = foreignKeys[i] != null ? targetsByKey.get(key(foreignKeys[i])) : null;
+         if (target != null) {
+            setValue(entities.get(i), info, target);
+         }
+      }
+      return targets;
+   }
+
+   /**
+    * Join column in the related entity's table, referring to the entity.
+    */
+   private static List<?> loadInverse(final Connection connection, final Introspected introspected, final List<?> entities,
+                                      final AttributeInfo info, final JoinColumn joinColumn) throws SQLException {
+      final Class<?> targetClass = info.getRelationshipTargetType();
+      final Introspected targetIntrospected = Introspector.getIntrospected(targetClass);
+      final AttributeInfo referencedInfo = referencedInfo(introspected, joinColumn);
+
+      final Map<Object, Object> distinctKeys = new LinkedHashMap<>();
+      for (final Object entity : entities) {
+         final Object value = introspected.get(entity, referencedInfo);
+         if (value != null) {
+            distinctKeys.putIfAbsent(key(value), value);
+         }
+      }
+      final List<?> targets = selectIn(connection, targetClass, joinColumn.name(), distinctKeys.values());
+
+      final Map<Object, List<Object>> targetsByKey = new HashMap<>();
+      final AttributeInfo foreignKeyInfo = targetIntrospected.getFieldColumnInfo(joinColumn.name());
+      Map<Object, Object> idToForeignKey = null;
+      AttributeInfo targetIdInfo = null;
+      if (foreignKeyInfo == null && !targets.isEmpty()) {
+         targetIdInfo = singleIdInfo(targetIntrospected);
+         idToForeignKey = readColumnPairs(connection, targetIntrospected.getDelimitedTableName(),
+            targetIdInfo.getDelimitedColumnName(), joinColumn.name(), joinColumn.name(), distinctKeys.values());
+      }
+      for (final Object target : targets) {
+         final Object foreignKey = foreignKeyInfo != null
+            ? targetIntrospected.get(target, foreignKeyInfo)
+            : idToForeignKey.get(key(targetIntrospected.get(target, targetIdInfo)));
+         targetsByKey.computeIfAbsent(key(foreignKey), k -> new ArrayList<>()).add(target);
+      }
+
+      for (final Object entity : entities) {
+         final Object value = introspected.get(entity, referencedInfo);
+         final List<Object> group = value != null ? targetsByKey.get(key(value)) : null;
+         if (info.isToManyRelationship()) {
+            final Collection<Object> collection = newCollection(info);
+            if (group != null) {
+               collection.addAll(group);
+            }
+            setValue(entity, info, collection);
+         }
+         else if (group != null) {
+            setValue(entity, info, group.get(0));
+         }
+      }
+      return targets;
+   }
+
+   private static List<?> loadManyToMany(final Connection connection, final Introspected introspected, final List<?> entities,
+                                         final AttributeInfo info) throws SQLException {
+      final Class<?> targetClass = info.getRelationshipTargetType();
+      final Introspected targetIntrospected = Introspector.getIntrospected(targetClass);
+      final JoinTable joinTable;
+      final JoinColumn ownerColumn;
+      final JoinColumn targetColumn;
+      if (info.getMappedBy().isEmpty()) {
+         joinTable = info.getJoinTableAnnotation();
+         if (joinTable == null) {
+            throw new RuntimeException("@ManyToMany " + info.getOwnerClazz().getName() + " " + info.getName() + " requires a @JoinTable");
+         }
+         ownerColumn = singleJoinColumn(joinTable, joinTable.joinColumns());
+         targetColumn = singleJoinColumn(joinTable, joinTable.inverseJoinColumns());
+      }
+      else {
+         final AttributeInfo owningInfo = targetIntrospected.getRelationshipFcInfo(info.getMappedBy());
+         if (owningInfo == null || owningInfo.getJoinTableAnnotation() == null) {
+            throw new RuntimeException("mappedBy of " + info.getOwnerClazz().getName() + " " + info.getName()
+               + " must name an attribute of " + targetClass.getName() + " with a @JoinTable");
+         }
+         joinTable = owningInfo.getJoinTableAnnotation();
+         ownerColumn = singleJoinColumn(joinTable, joinTable.inverseJoinColumns());
+         targetColumn = singleJoinColumn(joinTable, joinTable.joinColumns());
+      }
+      final AttributeInfo ownerReferencedInfo = referencedInfo(introspected, ownerColumn);
+      final AttributeInfo targetReferencedInfo = referencedInfo(targetIntrospected, targetColumn);
+
+      final String table = joinTable.schema().isEmpty() ? joinTable.name() : joinTable.schema() + '.' + joinTable.name();
+      final String sql = "SELECT " + ownerColumn.name() + ", " + targetColumn.name() + " FROM " + table
+         + " WHERE " + ownerColumn.name() + " IN (?)";
+      final List<Object> ownerKeys = values(introspected, entities, ownerReferencedInfo);
+      final Map<Object, List<Object>> targetKeysByOwnerKey = new HashMap<>();
+      final Map<Object, Object> distinctTargetKeys = new LinkedHashMap<>();
+      for (int from = 0; from < ownerKeys.size(); from += CHUNK_SIZE) {
+         final List<Object> chunk = ownerKeys.subList(from, Math.min(from + CHUNK_SIZE, ownerKeys.size()));
+         final ExpandedSql expanded = ExpandedSql.expand(connection, sql, chunk);
+         try (final PreparedStatement stmt = connection.prepareStatement(expanded.sql);
+              final ResultSet resultSet = OrmReader.statementToResultSet(stmt, expanded.args)) {
+            while (resultSet.next()) {
+               final Object targetKey = resultSet.getObject(2);
+               if (targetKey != null) {
+                  targetKeysByOwnerKey.computeIfAbsent(key(resultSet.getObject(1)), k -> new ArrayList<>()).add(key(targetKey));
+                  distinctTargetKeys.putIfAbsent(key(targetKey), targetKey);
+               }
+            }
+         }
+      }
+
+      final List<?> targets = selectIn(connection, targetClass, targetReferencedInfo.getDelimitedColumnName(), distinctTargetKeys.values());
+      final Map<Object, Object> targetsByKey = new HashMap<>();
+      for (final Object target : targets) {
+         targetsByKey.put(key(targetIntrospected.get(target, targetReferencedInfo)), target);
+      }
+      for (final Object entity : entities) {
+         final Object ownerKey = introspected.get(entity, ownerReferencedInfo);
+         final List<Object> targetKeys = ownerKey != null ? targetKeysByOwnerKey.get(key(ownerKey)) : null;
+         final Collection<Object> collection = newCollection(info);
+         if (targetKeys != null) {
+            for (final Object targetKey : targetKeys) {
+               final Object target = targetsByKey.get(targetKey);
+               if (target != null) {
+                  collection.add(target);
+               }
+            }
+         }
+         setValue(entity, info, collection);
+      }
+      return targets;
+   }
+
+   private static JoinColumn singleJoinColumn(final JoinTable joinTable, final JoinColumn[] joinColumns) {
+      if (joinColumns.length != 1) {
+         throw new RuntimeException("@JoinTable " + joinTable.name() + " must declare exactly one join column and one inverse join column");
+      }
+      return joinColumns[0];
+   }
+
+   static List<?> selectIn(final Connection connection, final Class<?> clazz, final String column, final Collection<Object> values) throws SQLException {
+      final List<Object> objects = new ArrayList<>();
+      final List<Object> valueList = new ArrayList<>(values);
+      for (int from = 0; from < valueList.size(); from += CHUNK_SIZE) {
+         final List<Object> chunk = valueList.subList(from, Math.min(from + CHUNK_SIZE, valueList.size()));
+         objects.addAll(OrmReader.listFromClause(connection, clazz, column + " IN (?)", chunk));
+      }
+      return objects;
+   }
+
+   /**
+    * @return the values of {@code valueColumn} by the keys of the values of {@code keyColumn} of the rows whose
+    * {@code whereColumn} is one of the specified values.
+    */
+   static Map<Object, Object> readColumnPairs(final Connection connection, final String table, final String keyColumn, final String valueColumn,
+                                              final String whereColumn, final Collection<Object> values) throws SQLException {
+      final Map<Object, Object> pairs = new HashMap<>();
+      final List<Object> valueList = new ArrayList<>(values);
+      final String sql = "SELECT " + keyColumn + ", " + valueColumn + " FROM " + table + " WHERE " + whereColumn + " IN (?)";
+      for (int from = 0; from < valueList.size(); from += CHUNK_SIZE) {
+         final List<Object> chunk = valueList.subList(from, Math.min(from + CHUNK_SIZE, valueList.size()));
+         final ExpandedSql expanded = ExpandedSql.expand(connection, sql, chunk);
+         try (final PreparedStatement stmt = connection.prepareStatement(expanded.sql);
+              final ResultSet resultSet = OrmReader.statementToResultSet(stmt, expanded.args)) {
+            while (resultSet.next()) {
+               pairs.put(key(resultSet.getObject(1)), resultSet.getObject(2));
+            }
+         }
+      }
+      return pairs;
+   }
+
+   static List<Object> values(final Introspected introspected, final List<?> entities, final AttributeInfo info) {
+      final Map<Object, Object> distinctValues = new LinkedHashMap<>();
+      for (final Object entity : entities) {
+         final Object value = introspected.get(entity, info);
+         if (value != null) {
+            distinctValues.putIfAbsent(key(value), value);
+         }
+      }
+      return new ArrayList<>(distinctValues.values());
+   }
+
+   private static AttributeInfo referencedInfo(final Introspected introspected, final JoinColumn joinColumn) {
+      if (joinColumn.referencedColumnName().isEmpty()) {
+         return singleIdInfo(introspected);
+      }
+      final AttributeInfo info = introspected.getFieldColumnInfo(joinColumn.referencedColumnName());
+      if (info == null) {
+         throw new RuntimeException("No attribute mapped to referenced column " + joinColumn.referencedColumnName()
+            + " of @JoinColumn " + joinColumn.name());
+      }
+      return info;
+   }
+
+   static AttributeInfo singleIdInfo(final Introspected introspected) {
+      final List<AttributeInfo> idFcInfos = introspected.getIdFcInfos();
+      if (idFcInfos.size() != 1) {
+         throw new RuntimeException("Fetching relationships requires a single @Id column on " + introspected.getTableName());
+      }
+      return idFcInfos.get(0);
+   }
+
+   static Collection<Object> newCollection(final AttributeInfo info) {
+      final Class<?> type = info.getType();
+      if (type.isAssignableFrom(ArrayList.class)) {
+         return new ArrayList<>();
+      }
+      if (type.isAssignableFrom(LinkedHashSet.class)) {
+         return new LinkedHashSet<>();
+      }
+      throw new RuntimeException("Unsupported collection type " + type.getName() + " of " + info.getOwnerClazz().getName() + " " + info.getName());
+   }
+
+   static void setValue(final Object entity, final AttributeInfo info, final Object value) {
+      try {
+         info.setValue(entity, value);
+      }
+      catch (IllegalAccessException e) {
+         throw new RuntimeException(e);
+      }
+   }
+
+   /**
+    * Integral keys of different Java types, e.g. an int id referred to by a BIGINT column, compare equal.
+    */
+   static Object key(final Object value) {
+      if (value instanceof Integer || value instanceof Short || value instanceof Byte || value instanceof BigInteger) {
+         return ((Number) value).longValue();
+      }
+      if (value instanceof BigDecimal) {
+         final BigDecimal decimal = ((BigDecimal) value).stripTrailingZeros();
+         try {
+            return decimal.longValueExact();
+         }
+         catch (ArithmeticException e) {
+            return decimal;
+         }
+      }
+      return value;
+   }
+}
@@ -0,0 +1,170 @@
+package com.zaxxer.q2o;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * SQL and arguments after expanding collection arguments. A {@link Collection} or array (except {@code byte[]} and
+ * {@code char[]}) bound to the single placeholder of an {@code IN (?)} list is replaced by as many placeholders as it
+ * has elements, rounded up to the next power of two (up to {@value #MAX_BUCKET}, multiples of it beyond) and padded
+ * with the last element. So only a handful of distinct statements is prepared for any list length. An empty collection
+ * becomes {@code IN (NULL)}, which matches no row. Note that {@code NOT IN (NULL)} matches no row either.
+ * <p>
+ * On PostgreSQL {@code IN (?)} becomes {@code = ANY(?)} and {@code NOT IN (?)} becomes {@code <> ALL(?)} with the
+ * elements bound as one SQL array, provided all elements are of the same supported type. The statement then is the
+ * same for every length.
+ */
+final class ExpandedSql {
+
+   static final int MAX_BUCKET = 1024;
+
+   private static final Pattern IN_LIST_START = Pattern.compile("(?i)(\\bNOT\\s+)?\\bIN\\s*\\(\\s*$");
+   private static final Pattern IN_LIST_END = Pattern.compile("\\s*\\)");
+   private static final Map<Class<?>, String> POSTGRES_ARRAY_TYPES = new HashMap<>();
+
+   static {
+      POSTGRES_ARRAY_TYPES.put(Integer.class, "int4");
+      POSTGRES_ARRAY_TYPES.put(Long.class, "int8");
+      POSTGRES_ARRAY_TYPES.put(Short.class, "int2");
+      POSTGRES_ARRAY_TYPES.put(Double.class, "float8");
+      POSTGRES_ARRAY_TYPES.put(Float.class, "float4");
+      POSTGRES_ARRAY_TYPES.put(BigDecimal.class, "numeric");
+      POSTGRES_ARRAY_TYPES.put(Boolean.class, "bool");
+      POSTGRES_ARRAY_TYPES.put(String.class, "text");
+      POSTGRES_ARRAY_TYPES.put(UUID.class, "uuid");
+   }
+
+   final String sql;
+   final Object[] args;
+
+   private ExpandedSql(final String sql, final Object[] args) {
+      this.sql = sql;
+      this.args = args;
+   }
+
+   /**
+    * @return the SQL and arguments unchanged if there is no collection argument.
+    */
+   static ExpandedSql expand(final Connection connection, final String sql, final Object... args) throws SQLException {
+      if (args == null || !hasCollectionArg(args)) {
+         return new ExpandedSql(sql, args);
+      }
+
+      final boolean isPostgres = "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName());
+      final StringBuilder sb = new StringBuilder(sql.length() + 64);
+      final List<Object> expandedArgs = new ArrayList<>(args.length + 16);
+      int argIdx = 0;
+      char quote = 0;
+      for (int i = 0; i < sql.length(); i++) {
+         final char c = sql.charAt(i);
+         if (quote != 0) {
+            if (c == quote) {
+               quote = 0;
+            }
+         }
+         else if (c == '\'' || c == '"') {
+            quote = c;
+         }
+         else if (c == '?' && argIdx < args.length) {
+            final Object arg = args[argIdx++];
+            if (isCollection(arg) && IN_LIST_END.matcher(sql).region(i + 1, sql.length()).lookingAt()) {
+               final Matcher inListStart = IN_LIST_START.matcher(sb);
+               if (inListStart.find()) {
+                  final List<Object> values = toList(arg);
+                  final String arrayType = isPostgres ? postgresArrayType(values) : null;
+                  if (arrayType != null) {
+                     sb.setLength(inListStart.start());
+                     sb.append(inListStart.group(1) != null ? "<> ALL(?" : "= ANY(?");
+                     expandedArgs.add(connection.createArrayOf(arrayType, values.toArray()));
+                  }
+                  else {
+                     appendBucket(sb, expandedArgs, values);
+                  }
+                  continue;
+               }
+            }
+            expandedArgs.add(arg);
+         }
+         sb.append(c);
+      }
+      for (; argIdx < args.length; argIdx++) {
+         expandedArgs.add(args[argIdx]);
+      }
+      return new ExpandedSql(sb.toString(), expandedArgs.toArray());
+   }
+
+   static int bucketSize(final int count) {
+      if (count <= 1) {
+         return count;
+      }
+      if (count > MAX_BUCKET) {
+         return (count + MAX_BUCKET - 1) / MAX_BUCKET * MAX_BUCKET;
+      }
+      return Integer.highestOneBit(count - 1) << 1;
+   }
+
+   private static void appendBucket(final StringBuilder sb, final List<Object> expandedArgs, final List<Object> values) {
+      if (values.isEmpty()) {
+         sb.append("NULL");
+         return;
+      }
+      final int bucketSize = bucketSize(values.size());
+      final Object last = values.get(values.size() - 1);
+      for (int i = 0; i < bucketSize; i++) {
+         sb.append(i == 0 ? "?" : ",?");
+         expandedArgs.add(i < values.size() ? values.get(i) : last);
+      }
+   }
+
+   private static boolean hasCollectionArg(final Object[] args) {
+      for (final Object arg : args) {
+         if (isCollection(arg)) {
+            return true;
+         }
+      }
+      return false;
+   }
+
+   private static boolean isCollection(final Object arg) {
+      return arg instanceof Collection
+         || arg != null && arg.getClass().isArray() && !(arg instanceof byte[]) && !(arg instanceof char[]);
+   }
+
+   private static List<Object> toList(final Object arg) {
+      if (arg instanceof Collection) {
+         return new ArrayList<>((Collection<?>) arg);
+      }
+      final int length = Array.getLength(arg);
+      final List<Object> values = new ArrayList<>(length);
+      for (int i = 0; i < length; i++) {
+         values.add(Array.get(arg, i));
+      }
+      return values;
+   }
+
+   /**
+    * @return null if the values are not all of the same supported type.
+    */
+   private static String postgresArrayType(final List<Object> values) {
+      if (values.isEmpty() || values.get(0) == null) {
+         return null;
+      }
+      final Class<?> type = values.get(0).getClass();
+      for (final Object value : values) {
+         if (value == null || value.getClass() != type) {
+            return null;
+         }
+      }
+      return POSTGRES_ARRAY_TYPES.get(type);
+   }
+}
@@ -14,6 +14,14 @@ class FieldInfo extends AttributeInfo {
       field.setAccessible(true);
    }
 
+   /**
+    * An attribute of an &#64;Embeddable reached from the entity through the specified fields.
+    */
+   FieldInfo(final Field field, final Class<?> clazz, final Field[] embeddingPath) {
+      super(field, clazz, embeddingPath);
+      field.setAccessible(true);
+   }
+
    protected void extractFieldName(final Field accessibleObject) {
       this.name = accessibleObject.getName();
    }
@@ -33,6 +41,11 @@ class FieldInfo extends AttributeInfo {
       return field.getDeclaredAnnotation(ManyToMany.class);
    }
 
+   @Override
+   protected JoinTable extractJoinTableAnnotation() {
+      return field.getDeclaredAnnotation(JoinTable.class);
+   }
+
    @Override
    protected OneToMany extractOneToManyAnnotation() {
       return field.getDeclaredAnnotation(OneToMany.class);
@@ -64,6 +77,10 @@ class FieldInfo extends AttributeInfo {
    }
 
    Object getValue(final Object target) throws IllegalAccessException, InvocationTargetException {
+      if (embeddingPath.length != 0) {
+         final Object owner = getEmbeddedOwner(target, false);
+         return owner != null ? field.get(owner) : null;
+      }
       if (!isSelfJoinField()) {
          return field.get(target);
       }
@@ -73,7 +90,10 @@ class FieldInfo extends AttributeInfo {
 
    void setValue(final Object target, final Object value) throws IllegalAccessException {
       try {
-         if (!isSelfJoinField()) {
+         if (embeddingPath.length != 0) {
+            field.set(getEmbeddedOwner(target, true), value);
+         }
+         else if (!isSelfJoinField()) {
             field.set(target, value);
          }
          else {
@@ -101,4 +121,9 @@ class FieldInfo extends AttributeInfo {
    protected Convert extractConvertAnnotation() {
       return field.getDeclaredAnnotation(Convert.class);
    }
+
+   @Override
+   protected Deduplicate extractDeduplicateAnnotation() {
+      return field.getDeclaredAnnotation(Deduplicate.class);
+   }
 }
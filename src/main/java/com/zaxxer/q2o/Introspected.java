@@ -52,6 +52,12 @@ final class Introspected {
    private final HashMap<String, ArrayList<AttributeInfo>> allFcInfosByTableName = new HashMap<>();
    private final TreeMap<String,Class<?>> tableNameToClassCaseInsensitive = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
    private final HashMap<Class<?>, AttributeInfo> actualTypeToFieldColumnInfo = new HashMap<Class<?>, AttributeInfo>();
+   private final HashMap<String, NamedQueryInfo> namedQueries = new HashMap<>();
+   private final HashMap<String, ResultSetMappingInfo> resultSetMappings = new HashMap<>();
+   private final HashMap<String, NamedProcedureInfo> namedProcedures = new HashMap<>();
+   private final HashMap<String, EntityGraphInfo> entityGraphs = new HashMap<>();
+   /** Relationship attributes by name, including those not mapped to a column of this class's table. */
+   private final HashMap<String, AttributeInfo> relationshipFcInfos = new HashMap<>();
 
    private boolean isGeneratedId;
    private String tableName;
@@ -193,56 +199,21 @@ final class Introspected {
                   continue;
                }
 
+               if (isEmbedded(field)) {
+                  addEmbeddedAttributes(new Field[] {field});
+                  continue;
+               }
+
                final Class<?> fieldClass = field.getDeclaringClass();
                final AttributeInfo fcInfo =
                   fieldsAccessType.get(field) == AccessType.FIELD
                      ? new FieldInfo(field, clazz)
                      : new PropertyInfo(field, clazz);
-               if (fcInfo.isToBeConsidered()) {
-
-                  List<AttributeInfo> attributeInfos = columnToField.computeIfAbsent(fcInfo.getCaseSensitiveColumnName(), k -> new ArrayList<>());
-                  attributeInfos.add(fcInfo);
-
-                  propertyToField.put(fcInfo.getName(), fcInfo);
-                  allFcInfos.add(fcInfo);
-                  addToAllFcInfosByTableName(fcInfo);
-
-                  if (fcInfo.isJoinFieldWithSecondTable()) {
-                     actualTypeToFieldColumnInfo.put(fcInfo.getActualType(), fcInfo);
-                     tableNameToClassCaseInsensitive.putIfAbsent(fcInfo.getTableName(), fcInfo.getActualType());
-                  }
-
-                  if (fcInfo.isIdField) {
-                     // Is it a problem that Class.getDeclaredFields() claims the fields are returned unordered?  We count on order.
-                     idFcInfos.add(fcInfo);
-                     isGeneratedId = isGeneratedId || fcInfo.isGeneratedId;
-                     if (isGeneratedId && idFcInfos.size() > 1) {
-                        throw new IllegalStateException("Cannot have multiple @Id annotations and @GeneratedValue at the same time.");
-                     }
-                     if (!fcInfo.isGeneratedId) {
-                        if (fcInfo.isInsertable() == null || fcInfo.isInsertable()) {
-                           insertableFcInfos.add(fcInfo);
-                        }
-                        if (fcInfo.isUpdatable() == null || fcInfo.isUpdatable()) {
-                           updatableFcInfos.add(fcInfo);
-                        }
-                     }
-                  }
-                  else {
-                     if (fcInfo.isSelfJoinField()) {
-                        selfJoinFCInfo = fcInfo;
-                     }
-                     if (fcInfo.isInsertable() == null || fcInfo.isInsertable()) {
-                        insertableFcInfos.add(fcInfo);
-                     }
-                     if (fcInfo.isUpdatable() == null || fcInfo.isUpdatable()) {
-                        updatableFcInfos.add(fcInfo);
-                     }
-                  }
-               }
+               addAttribute(fcInfo);
             }
 
             precalculateColumnInfos(idFcInfos);
+            extractNamedQueries();
 
          }
          catch (Exception e) {
@@ -253,6 +224,95 @@ final class Introspected {
       return this;
    }
 
+   private void addAttribute(final AttributeInfo fcInfo) {
+      if (!fcInfo.isTransient() && fcInfo.isRelationship()) {
+         relationshipFcInfos.put(fcInfo.getName(), fcInfo);
+      }
+      if (fcInfo.isToBeConsidered()) {
+
+         List<AttributeInfo> attributeInfos = columnToField.computeIfAbsent(fcInfo.getCaseSensitiveColumnName(), k -> new ArrayList<>());
+         attributeInfos.add(fcInfo);
+
+         propertyToField.put(fcInfo.getName(), fcInfo);
+         allFcInfos.add(fcInfo);
+         addToAllFcInfosByTableName(fcInfo);
+
+         if (fcInfo.isJoinFieldWithSecondTable()) {
+            actualTypeToFieldColumnInfo.put(fcInfo.getActualType(), fcInfo);
+            tableNameToClassCaseInsensitive.putIfAbsent(fcInfo.getTableName(), fcInfo.getActualType());
+         }
+
+         if (fcInfo.isIdField) {
+            // Is it a problem that Class.getDeclaredFields() claims the fields are returned unordered?  We count on order.
+            idFcInfos.add(fcInfo);
+            isGeneratedId = isGeneratedId || fcInfo.isGeneratedId;
+            if (isGeneratedId && idFcInfos.size() > 1) {
+               throw new IllegalStateException("Cannot have multiple @Id annotations and @GeneratedValue at the same time.");
+            }
+            if (!fcInfo.isGeneratedId) {
+               if (fcInfo.isInsertable() == null || fcInfo.isInsertable()) {
+                  insertableFcInfos.add(fcInfo);
+               }
+               if (fcInfo.isUpdatable() == null || fcInfo.isUpdatable()) {
+                  updatableFcInfos.add(fcInfo);
+               }
+            }
+         }
+         else {
+            if (fcInfo.isSelfJoinField()) {
+               selfJoinFCInfo = fcInfo;
+            }
+            if (fcInfo.isInsertable() == null || fcInfo.isInsertable()) {
+               insertableFcInfos.add(fcInfo);
+            }
+            if (fcInfo.isUpdatable() == null || fcInfo.isUpdatable()) {
+               updatableFcInfos.add(fcInfo);
+            }
+         }
+      }
+   }
+
+   private static boolean isEmbedded(final Field field) {
+      return field.isAnnotationPresent(Embedded.class) || field.getType().isAnnotationPresent(Embeddable.class);
+   }
+
+   /**
+    * Add the attributes of the &#64;Embeddable at the end of the path as if they were attributes of this class. Their
+    * access paths are resolved once here, so reading and writing them costs about the same as for flat attributes.
+    * Embeddables are filled field by field, so immutable ones with final fields are rejected.
+    */
+   private void addEmbeddedAttributes(final Field[] embeddingPath) {
+      final Field embeddingField = embeddingPath[embeddingPath.length - 1];
+      final Class<?> embeddableClass = embeddingField.getType();
+      if (!embeddableClass.isAnnotationPresent(Embeddable.class)) {
+         throw new RuntimeException("Type of @Embedded " + clazz.getName() + " " + embeddingField.getName() + " is not @Embeddable");
+      }
+      for (int i = 0; i < embeddingPath.length - 1; i++) {
+         if (embeddingPath[i].getType() == embeddableClass) {
+            throw new RuntimeException("@Embeddable " + embeddableClass.getName() + " embeds itself");
+         }
+      }
+      embeddingField.setAccessible(true);
+      for (final Field field : embeddableClass.getDeclaredFields()) {
+         final int modifiers = field.getModifiers();
+         if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+            continue;
+         }
+         if (Modifier.isFinal(modifiers)) {
+            // setting it would modify immutable, possibly shared, instances in place
+            throw new RuntimeException("@Embeddable " + embeddableClass.getName() + " has final field " + field.getName());
+         }
+         if (isEmbedded(field)) {
+            final Field[] path = Arrays.copyOf(embeddingPath, embeddingPath.length + 1);
+            path[embeddingPath.length] = field;
+            addEmbeddedAttributes(path);
+         }
+         else {
+            addAttribute(new FieldInfo(field, clazz, embeddingPath));
+         }
+      }
+   }
+
    private void addToAllFcInfosByTableName(final AttributeInfo fcInfo) {
       String tableName = fcInfo.getTableName();
       ArrayList<AttributeInfo> attributeInfos = allFcInfosByTableName.computeIfAbsent(tableName, tblName -> new ArrayList<>());
@@ -451,6 +511,145 @@ final class Introspected {
       });
    }
 
+   private void extractNamedQueries() {
+      final SqlResultSetMappings sqlResultSetMappings = clazz.getAnnotation(SqlResultSetMappings.class);
+      if (sqlResultSetMappings != null) {
+         for (final SqlResultSetMapping mapping : sqlResultSetMappings.value()) {
+            addResultSetMapping(mapping);
+         }
+      }
+      final SqlResultSetMapping sqlResultSetMapping = clazz.getAnnotation(SqlResultSetMapping.class);
+      if (sqlResultSetMapping != null) {
+         addResultSetMapping(sqlResultSetMapping);
+      }
+
+      final NamedNativeQueries namedNativeQueries = clazz.getAnnotation(NamedNativeQueries.class);
+      if (namedNativeQueries != null) {
+         for (final NamedNativeQuery query : namedNativeQueries.value()) {
+            addNamedQuery(query);
+         }
+      }
+      final NamedNativeQuery namedNativeQuery = clazz.getAnnotation(NamedNativeQuery.class);
+      if (namedNativeQuery != null) {
+         addNamedQuery(namedNativeQuery);
+      }
+
+      final NamedStoredProcedureQueries namedProcedureQueries = clazz.getAnnotation(NamedStoredProcedureQueries.class);
+      if (namedProcedureQueries != null) {
+         for (final NamedStoredProcedureQuery query : namedProcedureQueries.value()) {
+            addNamedProcedure(query);
+         }
+      }
+      final NamedStoredProcedureQuery namedProcedureQuery = clazz.getAnnotation(NamedStoredProcedureQuery.class);
+      if (namedProcedureQuery != null) {
+         addNamedProcedure(namedProcedureQuery);
+      }
+
+      final NamedEntityGraphs namedEntityGraphs = clazz.getAnnotation(NamedEntityGraphs.class);
+      if (namedEntityGraphs != null) {
+         for (final NamedEntityGraph graph : namedEntityGraphs.value()) {
+            addEntityGraph(graph);
+         }
+      }
+      final NamedEntityGraph namedEntityGraph = clazz.getAnnotation(NamedEntityGraph.class);
+      if (namedEntityGraph != null) {
+         addEntityGraph(namedEntityGraph);
+      }
+   }
+
+   private void addEntityGraph(final NamedEntityGraph graph) {
+      final EntityGraphInfo info = new EntityGraphInfo(clazz, graph);
+      if (entityGraphs.put(info.name, info) != null) {
+         throw new RuntimeException("Duplicate @NamedEntityGraph " + info.name + " on " + clazz.getName());
+      }
+      for (final EntityGraphInfo.Node node : info.nodes) {
+         if (!relationshipFcInfos.containsKey(node.attributeName) && !propertyToField.containsKey(node.attributeName)) {
+            throw new RuntimeException("@NamedEntityGraph " + info.name + " on " + clazz.getName()
+               + " refers to unknown attribute " + node.attributeName);
+         }
+      }
+   }
+
+   /**
+    * @return the {@link NamedEntityGraph} with the specified name.
+    * @throws RuntimeException if this class has no such graph.
+    */
+   EntityGraphInfo getEntityGraph(final String name) {
+      final EntityGraphInfo info = entityGraphs.get(name);
+      if (info == null) {
+         throw new RuntimeException("No @NamedEntityGraph " + name + " on " + clazz.getName());
+      }
+      return info;
+   }
+
+   /**
+    * @return the relationship attribute with the specified name or {@code null}.
+    */
+   AttributeInfo getRelationshipFcInfo(final String name) {
+      return relationshipFcInfos.get(name);
+   }
+
+   private void addNamedQuery(final NamedNativeQuery query) {
+      final NamedQueryInfo info = new NamedQueryInfo(clazz, query);
+      if (namedQueries.put(info.name, info) != null) {
+         throw new RuntimeException("Duplicate @NamedNativeQuery " + info.name + " on " + clazz.getName());
+      }
+      if (info.resultSetMapping != null && !resultSetMappings.containsKey(info.resultSetMapping)) {
+         throw new RuntimeException("@NamedNativeQuery " + info.name + " on " + clazz.getName()
+            + " refers to unknown @SqlResultSetMapping " + info.resultSetMapping);
+      }
+   }
+
+   private void addNamedProcedure(final NamedStoredProcedureQuery query) {
+      final NamedProcedureInfo info = new NamedProcedureInfo(clazz, query);
+      if (namedProcedures.put(info.name, info) != null) {
+         throw new RuntimeException("Duplicate @NamedStoredProcedureQuery " + info.name + " on " + clazz.getName());
+      }
+   }
+
+   /**
+    * @return the {@link NamedStoredProcedureQuery} with the specified name.
+    * @throws RuntimeException if this class has no such query.
+    */
+   NamedProcedureInfo getNamedProcedure(final String name) {
+      final NamedProcedureInfo info = namedProcedures.get(name);
+      if (info == null) {
+         throw new RuntimeException("No @NamedStoredProcedureQuery " + name + " on " + clazz.getName());
+      }
+      return info;
+   }
+
+   private void addResultSetMapping(final SqlResultSetMapping mapping) {
+      final ResultSetMappingInfo info = new ResultSetMappingInfo(clazz, mapping);
+      if (resultSetMappings.put(info.name, info) != null) {
+         throw new RuntimeException("Duplicate @SqlResultSetMapping " + info.name + " on " + clazz.getName());
+      }
+   }
+
+   /**
+    * @return the {@link SqlResultSetMapping} with the specified name.
+    * @throws RuntimeException if this class has no such mapping.
+    */
+   ResultSetMappingInfo getResultSetMapping(final String name) {
+      final ResultSetMappingInfo info = resultSetMappings.get(name);
+      if (info == null) {
+         throw new RuntimeException("No @SqlResultSetMapping " + name + " on " + clazz.getName());
+      }
+      return info;
+   }
+
+   /**
+    * @return the {@link NamedNativeQuery} with the specified name.
+    * @throws RuntimeException if this class has no such query.
+    */
+   NamedQueryInfo getNamedQuery(final String name) {
+      final NamedQueryInfo info = namedQueries.get(name);
+      if (info == null) {
+         throw new RuntimeException("No @NamedNativeQuery " + name + " on " + clazz.getName());
+      }
+      return info;
+   }
+
    /**
     * Get the table name specified by the {@link Table} annotation.
     */
@@ -509,22 +708,28 @@ final class Introspected {
       }
 
       try {
-         Object value = fcInfo.getValue(target);
-         // Fix-up column value for enums, integer as boolean, etc.
-         if (fcInfo.getConverter() != null) {
-            value = fcInfo.getConverter().convertToDatabaseColumn(value);
-         }
-         else if (fcInfo.enumConstants != null && value != null) {
-            value = (fcInfo.enumType == EnumType.ORDINAL ? ((Enum<?>) value).ordinal() : ((Enum<?>) value).name());
-         }
-
-         return value;
+         return toDatabaseValue(fcInfo, fcInfo.getValue(target));
       }
       catch (Exception e) {
          throw new RuntimeException(e);
       }
    }
 
+   /**
+    * Convert an attribute value to the value bound to the database, applying an {@link AttributeConverter} or enum
+    * mapping if there is one.
+    */
+   static Object toDatabaseValue(final AttributeInfo fcInfo, final Object value) {
+      // Fix-up column value for enums, integer as boolean, etc.
+      if (fcInfo.getConverter() != null) {
+         return fcInfo.getConverter().convertToDatabaseColumn(value);
+      }
+      else if (fcInfo.enumConstants != null && value != null) {
+         return (fcInfo.enumType == EnumType.ORDINAL ? ((Enum<?>) value).ordinal() : ((Enum<?>) value).name());
+      }
+      return value;
+   }
+
    /**
     * Set a field value of the specified target object.
     *
@@ -581,6 +786,10 @@ final class Introspected {
             }
          }
 
+         if (fcInfo.deduplicator != null && columnValue instanceof String) {
+            columnValue = fcInfo.deduplicator.deduplicate((String) columnValue);
+         }
+
          fcInfo.setValue(target, columnValue);
       }
       catch (Exception e) {
@@ -803,6 +1012,13 @@ final class Introspected {
          .orElse(null);
    }
 
+   /**
+    * @return the {@link AttributeInfo} for the specified property name or {@code null}
+    */
+   AttributeInfo getFieldColumnInfoForProperty(final String propertyName) {
+      return propertyToField.get(propertyName);
+   }
+
    private void precalculateColumnInfos(final List<AttributeInfo> idFcInfos) {
       idFieldColumnInfos = new AttributeInfo[idFcInfos.size()];
       idColumnNames = new String[idFcInfos.size()];
@@ -841,7 +1057,7 @@ final class Introspected {
       precalculateUpdatableColumns();
    }
 
-   private static String readClob(final Clob clob) throws IOException, SQLException {
+   static String readClob(final Clob clob) throws IOException, SQLException {
       try (final Reader reader = clob.getCharacterStream()) {
          final StringBuilder sb = new StringBuilder();
          final char[] cbuf = new char[1024];
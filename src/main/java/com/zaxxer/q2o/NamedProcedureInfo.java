@@ -0,0 +1,70 @@
+package com.zaxxer.q2o;
+
+import javax.persistence.NamedStoredProcedureQuery;
+import javax.persistence.ParameterMode;
+import javax.persistence.StoredProcedureParameter;
+
+/**
+ * A validated {@link NamedStoredProcedureQuery} of an entity with its JDBC call escape, e.g.
+ * {@code {call close_orders(?,?)}}.
+ */
+final class NamedProcedureInfo {
+
+   final String name;
+   final String callSql;
+   /** null if the query does not declare a result class. */
+   final Class<?> resultClass;
+   private final ParameterMode[] parameterModes;
+
+   NamedProcedureInfo(final Class<?> declaringClass, final NamedStoredProcedureQuery query) {
+      if (query.name().trim().isEmpty() || query.procedureName().trim().isEmpty()) {
+         throw new RuntimeException("@NamedStoredProcedureQuery on " + declaringClass.getName() + " needs a name and a procedureName");
+      }
+      if (query.resultClasses().length > 1 || query.resultSetMappings().length > 0) {
+         throw new RuntimeException("@NamedStoredProcedureQuery " + query.name() + " on " + declaringClass.getName()
+            + " may only declare a single result class");
+      }
+      final Class<?> resultClass = query.resultClasses().length == 1 ? query.resultClasses()[0] : null;
+      if (resultClass != null && !declaringClass.isAssignableFrom(resultClass)) {
+         throw new RuntimeException("resultClass " + resultClass.getName() + " of @NamedStoredProcedureQuery " + query.name()
+            + " is not assignable to " + declaringClass.getName());
+      }
+
+      final StoredProcedureParameter[] parameters = query.parameters();
+      parameterModes = new ParameterMode[parameters.length];
+      final StringBuilder sb = new StringBuilder("{call ").append(query.procedureName()).append('(');
+      for (int i = 0; i < parameters.length; i++) {
+         if (parameters[i].mode() == ParameterMode.REF_CURSOR) {
+            throw new RuntimeException("REF_CURSOR parameters of @NamedStoredProcedureQuery " + query.name() + " are not supported");
+         }
+         parameterModes[i] = parameters[i].mode();
+         sb.append(i == 0 ? "?" : ",?");
+      }
+
+      this.name = query.name();
+      this.callSql = sb.append(")}").toString();
+      this.resultClass = resultClass;
+   }
+
+   /**
+    * Check that there is an argument for every declared parameter and an {@link OutParameter} for every OUT and
+    * INOUT parameter.
+    */
+   void validateArguments(final Object... args) {
+      if (args.length != parameterModes.length) {
+         throw new RuntimeException("@NamedStoredProcedureQuery " + name + " expects " + parameterModes.length + " arguments, got " + args.length);
+      }
+      for (int i = 0; i < args.length; i++) {
+         final boolean matches;
+         if (parameterModes[i] == ParameterMode.IN) {
+            matches = !(args[i] instanceof OutParameter);
+         }
+         else {
+            matches = args[i] instanceof OutParameter && ((OutParameter) args[i]).isInOut() == (parameterModes[i] == ParameterMode.INOUT);
+         }
+         if (!matches) {
+            throw new RuntimeException("Argument " + (i + 1) + " of @NamedStoredProcedureQuery " + name + " does not match parameter mode " + parameterModes[i]);
+         }
+      }
+   }
+}
@@ -0,0 +1,49 @@
+package com.zaxxer.q2o;
+
+import javax.persistence.NamedNativeQuery;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * A validated {@link NamedNativeQuery} of an entity. The parameter types are read from the first statement prepared
+ * for the query and reused for all following executions.
+ */
+final class NamedQueryInfo {
+
+   final String name;
+   final String sql;
+   /** null if the query does not declare a result class. */
+   final Class<?> resultClass;
+   /** null if the query does not declare a result set mapping. */
+   final String resultSetMapping;
+
+   private volatile int[] parameterTypes;
+
+   NamedQueryInfo(final Class<?> declaringClass, final NamedNativeQuery query) {
+      if (query.name().trim().isEmpty()) {
+         throw new RuntimeException("@NamedNativeQuery on " + declaringClass.getName() + " has no name");
+      }
+      if (query.query().trim().isEmpty()) {
+         throw new RuntimeException("@NamedNativeQuery " + query.name() + " on " + declaringClass.getName() + " has no query");
+      }
+      final Class<?> resultClass = query.resultClass();
+      if (resultClass != void.class && !declaringClass.isAssignableFrom(resultClass)) {
+         throw new RuntimeException("resultClass " + resultClass.getName() + " of @NamedNativeQuery " + query.name()
+            + " is not assignable to " + declaringClass.getName());
+      }
+
+      this.name = query.name();
+      this.sql = query.query();
+      this.resultClass = resultClass == void.class ? null : resultClass;
+      this.resultSetMapping = query.resultSetMapping().isEmpty() ? null : query.resultSetMapping();
+   }
+
+   int[] getParameterTypes(final PreparedStatement stmt) throws SQLException {
+      int[] types = parameterTypes;
+      if (types == null) {
+         types = OrmBase.getParameterTypes(stmt);
+         parameterTypes = types;
+      }
+      return types;
+   }
+}
@@ -40,19 +40,68 @@ class OrmBase
 
    protected static void populateStatementParameters(final PreparedStatement stmt, final Object... args) throws SQLException
    {
-      final ParameterMetaData parameterMetaData = stmt.getParameterMetaData();
-      final int paramCount = parameterMetaData.getParameterCount();
+      populateStatementParameters(stmt, getParameterTypes(stmt), args);
+   }
+
+   /**
+    * @param parameterTypes as returned by {@link #getParameterTypes(PreparedStatement)} for a statement with the same SQL.
+    */
+   protected static void populateStatementParameters(final PreparedStatement stmt, final int[] parameterTypes, final Object... args) throws SQLException
+   {
+      final int paramCount = parameterTypes.length;
       if (paramCount > 0 && args.length < paramCount) {
          throw new RuntimeException("Too few parameters supplied for query");
       }
 
       for (int colIdx = paramCount; colIdx > 0; colIdx--) {
-         final int parameterType = parameterMetaData.getParameterType(colIdx);
+         final int parameterType = parameterTypes[colIdx - 1];
          final Object object = mapSqlType(args[colIdx - 1], parameterType);
          stmt.setObject(colIdx, object, parameterType);
       }
    }
 
+   protected static int[] getParameterTypes(final PreparedStatement stmt) throws SQLException
+   {
+      final ParameterMetaData metaData = stmt.getParameterMetaData();
+      final int[] parameterTypes = new int[metaData.getParameterCount()];
+      for (int parameterIndex = 1; parameterIndex <= parameterTypes.length; parameterIndex++) {
+         parameterTypes[parameterIndex - 1] = metaData.getParameterType(parameterIndex);
+      }
+      return parameterTypes;
+   }
+
+   /**
+    * Like {@link #populateStatementParameters(PreparedStatement, Object...)}, but registers every {@link OutParameter}
+    * among the arguments instead of setting it.
+    */
+   protected static void populateCallParameters(final CallableStatement stmt, final Object... args) throws SQLException
+   {
+      final int[] parameterTypes = getParameterTypes(stmt);
+      if (args.length < parameterTypes.length) {
+         throw new RuntimeException("Too few parameters supplied for call");
+      }
+
+      for (int colIdx = parameterTypes.length; colIdx > 0; colIdx--) {
+         final Object arg = args[colIdx - 1];
+         if (arg instanceof OutParameter) {
+            ((OutParameter) arg).register(stmt, colIdx);
+         }
+         else {
+            final int parameterType = parameterTypes[colIdx - 1];
+            stmt.setObject(colIdx, mapSqlType(arg, parameterType), parameterType);
+         }
+      }
+   }
+
+   protected static void readOutParameters(final CallableStatement stmt, final Object... args) throws SQLException
+   {
+      for (int colIdx = 1; colIdx <= args.length; colIdx++) {
+         if (args[colIdx - 1] instanceof OutParameter) {
+            ((OutParameter) args[colIdx - 1]).read(stmt, colIdx);
+         }
+      }
+   }
+
    // public static <T> String getColumnsCsv(final Class<T> clazz, final String... tablePrefix)
 
    /**
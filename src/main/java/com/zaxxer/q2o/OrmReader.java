@@ -16,10 +16,21 @@
 
 package com.zaxxer.q2o;
 
+import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.IntFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * OrmReader
@@ -28,6 +39,10 @@ import java.util.concurrent.atomic.AtomicBoolean;
 class OrmReader extends OrmBase
 {
    private static final int CACHE_SIZE = Integer.getInteger("com.zaxxer.sansorm.statementCacheSize", 500);
+   private static volatile ResultGuard resultGuard = ResultGuard.UNLIMITED;
+   /** Parts of a query that cannot follow the condition of a parallelScan() range. */
+   private static final Pattern NON_CONDITION = Pattern.compile("(?i)\\b(ORDER\\s+BY|GROUP\\s+BY|LIMIT|OFFSET|FETCH\\s+(?:FIRST|NEXT)|UNION)\\b");
+   private static final int INITIAL_ARRAY_SIZE = 64;
 
    private static final Map<String, String> fromClauseStmtCache;
 
@@ -43,13 +58,23 @@ class OrmReader extends OrmBase
       });
    }
 
+   static void setResultGuard(final ResultGuard guard)
+   {
+      resultGuard = guard != null ? guard : ResultGuard.UNLIMITED;
+   }
+
    static <T> List<T> statementToList(final PreparedStatement stmt, final Class<T> clazz, final Object... args) throws SQLException
+   {
+      return statementToList(stmt, clazz, resultGuard, args);
+   }
+
+   static <T> List<T> statementToList(final PreparedStatement stmt, final Class<T> clazz, final ResultGuard guard, final Object... args) throws SQLException
    {
       try (final PreparedStatement closeStmt = stmt) {
          ResultSet rs = statementToResultSet(stmt, args);
          boolean next = rs.next();
          if (next) {
-            return resultSetToList(rs, clazz);
+            return resultSetToList(rs, clazz, guard);
          }
          else {
             return new ArrayList<T>();
@@ -57,20 +82,63 @@ class OrmReader extends OrmBase
       }
    }
 
+   /**
+    * Like {@link #statementToList(PreparedStatement, Class, Object...)} but hands every object to the consumer
+    * as soon as its row is mapped instead of collecting them.
+    */
+   static <T> void statementToConsumer(final PreparedStatement stmt, final Class<T> clazz, final Consumer<? super T> consumer, final Object... args) throws SQLException
+   {
+      try (final PreparedStatement closeStmt = stmt) {
+         ResultSet rs = statementToResultSet(stmt, args);
+         if (rs.next()) {
+            ResultSetToObjectProcessor<T> processor = new ResultSetToObjectProcessor<>(rs, new HashSet<>());
+            processor.process(clazz, consumer);
+         }
+      }
+   }
+
    static ResultSet statementToResultSet(final PreparedStatement stmt, final Object... args) throws SQLException
    {
       populateStatementParameters(stmt, args);
       return stmt.executeQuery();
    }
 
+   static ResultSet sqlToResultSet(final Connection connection, final String sql, final Object... args) throws SQLException
+   {
+      final ExpandedSql expanded = ExpandedSql.expand(connection, sql, args);
+      return statementToResultSet(connection.prepareStatement(expanded.sql), expanded.args);
+   }
+
+   static <T> List<T> listFromClause(final Connection connection, final Class<T> clazz, final ResultGuard guard, final String clause, final Object... args) throws SQLException
+   {
+      final ExpandedSql expanded = ExpandedSql.expand(connection, generateSelectFromClause(clazz, clause), args);
+      return statementToList(connection.prepareStatement(expanded.sql), clazz, guard, expanded.args);
+   }
+
+   static <T> List<T> listFromSelect(final Connection connection, final Class<T> clazz, final String select, final Object... args) throws SQLException
+   {
+      final ExpandedSql expanded = ExpandedSql.expand(connection, select, args);
+      return statementToList(connection.prepareStatement(expanded.sql), clazz, expanded.args);
+   }
+
+   static <T> T objectFromSelect(final Connection connection, final Class<T> clazz, final String select, final Object... args) throws SQLException
+   {
+      final ExpandedSql expanded = ExpandedSql.expand(connection, select, args);
+      return statementToObject(connection.prepareStatement(expanded.sql), clazz, expanded.args);
+   }
+
 
    /**
     *
     * @param resultSet ResultSet.next() must <i>NOT</i> been called before.
     */
    static <T> List<T> resultSetToList(final ResultSet resultSet, final Class<T> targetClass) throws SQLException {
+      return resultSetToList(resultSet, targetClass, resultGuard);
+   }
+
+   static <T> List<T> resultSetToList(final ResultSet resultSet, final Class<T> targetClass, final ResultGuard guard) throws SQLException {
       ResultSetToObjectProcessor<T> processor = new ResultSetToObjectProcessor<>(resultSet, new HashSet<>());
-      return processor.process(targetClass);
+      return processor.process(targetClass, guard);
    }
 
    private static <T> T statementToObject(final PreparedStatement stmt, final T target, final Object... args) throws SQLException
@@ -158,24 +226,360 @@ class OrmReader extends OrmBase
 
    static <T> List<T> listFromClause(final Connection connection, final Class<T> clazz, final String clause, final Object... args) throws SQLException
    {
-      final String sql = generateSelectFromClause(clazz, clause);
-      final PreparedStatement stmt = connection.prepareStatement(sql);
+      final ExpandedSql expanded = ExpandedSql.expand(connection, generateSelectFromClause(clazz, clause), args);
+      final PreparedStatement stmt = connection.prepareStatement(expanded.sql);
+
+      return statementToList(stmt, clazz, expanded.args);
+   }
+
+   static <T> List<T> listFromClauseWithGraph(final Connection connection, final Class<T> clazz, final String graphName, final String clause, final Object... args) throws SQLException
+   {
+      final EntityGraphInfo graph = Introspector.getIntrospected(clazz).getEntityGraph(graphName);
+      final List<T> list = listFromClause(connection, clazz, clause, args);
+      EntityGraphLoader.load(connection, clazz, list, graph.nodes);
+      return list;
+   }
+
+   static <T> List<T> fetchGraph(final Connection connection, final Class<T> clazz, final List<T> entities, final String graphName) throws SQLException
+   {
+      EntityGraphLoader.load(connection, clazz, entities, Introspector.getIntrospected(clazz).getEntityGraph(graphName).nodes);
+      return entities;
+   }
+
+   static <T> List<T> fetchRelationship(final Connection connection, final Class<T> clazz, final List<T> entities, final String attributeName) throws SQLException
+   {
+      if (Introspector.getIntrospected(clazz).getRelationshipFcInfo(attributeName) == null) {
+         throw new RuntimeException("No relationship " + attributeName + " on " + clazz.getName());
+      }
+      EntityGraphLoader.load(connection, clazz, entities, Collections.singletonList(EntityGraphInfo.node(attributeName)));
+      return entities;
+   }
+
+   @SuppressWarnings("unchecked")
+   static <T> List<T> listFromNamedQuery(final Connection connection, final Class<T> clazz, final String name, final Object... args) throws SQLException
+   {
+      final NamedQueryInfo query = Introspector.getIntrospected(clazz).getNamedQuery(name);
+      if (query.resultSetMapping != null) {
+         throw new RuntimeException("@NamedNativeQuery " + name + " uses a result set mapping, use Q2ObjList.namedProjection()");
+      }
+      final Class<T> resultClass = query.resultClass != null ? (Class<T>) query.resultClass : clazz;
+
+      try (final PreparedStatement stmt = prepareNamedQuery(connection, query, args)) {
+         final ResultSet resultSet = stmt.executeQuery();
+         return resultSet.next() ? resultSetToList(resultSet, resultClass) : new ArrayList<>();
+      }
+   }
+
+   /**
+    * Maps the first result set of the call. The {@link OutParameter}s are read after the rows.
+    */
+   static <T> List<T> listFromProcedure(final Connection connection, final Class<T> clazz, final String callSql, final Object... args) throws SQLException
+   {
+      try (final CallableStatement stmt = connection.prepareCall(callSql)) {
+         populateCallParameters(stmt, args);
+         List<T> list = new ArrayList<>();
+         if (stmt.execute()) {
+            try (final ResultSet resultSet = stmt.getResultSet()) {
+               if (resultSet.next()) {
+                  list = resultSetToList(resultSet, clazz);
+               }
+            }
+         }
+         readOutParameters(stmt, args);
+         return list;
+      }
+   }
 
-      return statementToList(stmt, clazz, args);
+   @SuppressWarnings("unchecked")
+   static <T> List<T> listFromNamedProcedure(final Connection connection, final Class<T> clazz, final String name, final Object... args) throws SQLException
+   {
+      final NamedProcedureInfo procedure = Introspector.getIntrospected(clazz).getNamedProcedure(name);
+      procedure.validateArguments(args);
+      final Class<T> resultClass = procedure.resultClass != null ? (Class<T>) procedure.resultClass : clazz;
+      return listFromProcedure(connection, resultClass, procedure.callSql, args);
+   }
+
+   static <R> List<R> listFromNamedProjection(final Connection connection, final Class<?> declaringClass, final String name, final Object... args) throws SQLException
+   {
+      final Introspected introspected = Introspector.getIntrospected(declaringClass);
+      final NamedQueryInfo query = introspected.getNamedQuery(name);
+      if (query.resultSetMapping == null) {
+         throw new RuntimeException("@NamedNativeQuery " + name + " has no result set mapping, use Q2ObjList.named()");
+      }
+      final ResultSetMappingInfo mapping = introspected.getResultSetMapping(query.resultSetMapping);
+
+      try (final PreparedStatement stmt = prepareNamedQuery(connection, query, args)) {
+         try (final ResultSet resultSet = stmt.executeQuery()) {
+            return mapping.process(resultSet);
+         }
+      }
+   }
+
+   /**
+    * Prepares the named query with its collection arguments expanded and binds them. The cached parameter types of
+    * the query only fit the statement if no argument was expanded.
+    */
+   private static PreparedStatement prepareNamedQuery(final Connection connection, final NamedQueryInfo query, final Object... args) throws SQLException
+   {
+      final ExpandedSql expanded = ExpandedSql.expand(connection, query.sql, args);
+      final PreparedStatement stmt = connection.prepareStatement(expanded.sql);
+      try {
+         populateStatementParameters(stmt, expanded.sql.equals(query.sql) ? query.getParameterTypes(stmt) : getParameterTypes(stmt), expanded.args);
+      }
+      catch (SQLException | RuntimeException e) {
+         stmt.close();
+         throw e;
+      }
+      return stmt;
+   }
+
+   static <R> List<R> listFromResultSetMapping(final Connection connection, final Class<?> declaringClass, final String mappingName, final String sql, final Object... args) throws SQLException
+   {
+      final ResultSetMappingInfo mapping = Introspector.getIntrospected(declaringClass).getResultSetMapping(mappingName);
+
+      final ExpandedSql expanded = ExpandedSql.expand(connection, sql, args);
+      try (final PreparedStatement stmt = connection.prepareStatement(expanded.sql)) {
+         populateStatementParameters(stmt, expanded.args);
+         try (final ResultSet resultSet = stmt.executeQuery()) {
+            return mapping.process(resultSet);
+         }
+      }
+   }
+
+   /**
+    * Maps the objects directly into a map keyed by their id while reading the rows. With a composite primary key the
+    * key is a list of the id values in order of declaration.
+    */
+   static <K, T> Map<K, T> mapByIdFromClause(final Connection connection, final Class<T> clazz, final String clause, final Object... args) throws SQLException
+   {
+      return mapByIdFromClause(connection, clazz, 0, clause, args);
+   }
+
+   /**
+    * @param expectedSize the expected number of objects to presize the map for, 0 if unknown.
+    */
+   static <K, T> Map<K, T> mapByIdFromClause(final Connection connection, final Class<T> clazz, final int expectedSize, final String clause, final Object... args) throws SQLException
+   {
+      final Introspected introspected = Introspector.getIntrospected(clazz);
+      if (introspected.getIdColumnNames().length == 0) {
+         throw new RuntimeException("No id columns provided in: " + clazz.getName());
+      }
+      final boolean hasCompositePrimaryKey = introspected.hasCompositePrimaryKey();
+      final ExpandedSql expanded = ExpandedSql.expand(connection, generateSelectFromClause(clazz, clause), args);
+      final PreparedStatement stmt = connection.prepareStatement(expanded.sql);
+      final Map<K, T> map = new LinkedHashMap<>(initialMapCapacity(expectedSize));
+      statementToConsumer(stmt, clazz, obj -> {
+         final Object[] ids = introspected.getActualIds(obj);
+         @SuppressWarnings("unchecked")
+         final K key = (K) (hasCompositePrimaryKey ? Arrays.asList(ids) : ids[0]);
+         map.put(key, obj);
+      }, expanded.args);
+      return map;
+   }
+
+   /**
+    * Groups the objects by the value of an attribute while reading the rows.
+    *
+    * @param propertyName the name of the attribute (not the column).
+    */
+   static <K, T> Map<K, List<T>> groupByFromClause(final Connection connection, final Class<T> clazz, final String propertyName, final String clause, final Object... args) throws SQLException
+   {
+      return groupByFromClause(connection, clazz, propertyName, 0, clause, args);
+   }
+
+   /**
+    * @param expectedGroups the expected number of distinct attribute values to presize the map for, 0 if unknown.
+    */
+   static <K, T> Map<K, List<T>> groupByFromClause(final Connection connection, final Class<T> clazz, final String propertyName, final int expectedGroups,
+                                                   final String clause, final Object... args) throws SQLException
+   {
+      final AttributeInfo fcInfo = Introspector.getIntrospected(clazz).getFieldColumnInfoForProperty(propertyName);
+      if (fcInfo == null) {
+         throw new IllegalArgumentException("No such attribute in " + clazz.getName() + ": " + propertyName);
+      }
+      final ExpandedSql expanded = ExpandedSql.expand(connection, generateSelectFromClause(clazz, clause), args);
+      final PreparedStatement stmt = connection.prepareStatement(expanded.sql);
+      final Map<K, List<T>> map = new LinkedHashMap<>(initialMapCapacity(expectedGroups));
+      statementToConsumer(stmt, clazz, obj -> {
+         try {
+            @SuppressWarnings("unchecked")
+            final K key = (K) fcInfo.getValue(obj);
+            map.computeIfAbsent(key, k -> new ArrayList<>()).add(obj);
+         }
+         catch (IllegalAccessException | InvocationTargetException e) {
+            throw new RuntimeException(e);
+         }
+      }, expanded.args);
+      return map;
+   }
+
+   /**
+    * @return a capacity large enough to hold the expected number of entries without rehashing.
+    */
+   private static int initialMapCapacity(final int expectedSize)
+   {
+      return expectedSize > 0 ? (int) (expectedSize / 0.75f) + 1 : 16;
+   }
+
+   /**
+    * Splits the key range of the single numeric id column into up to {@code parallelism} ranges and reads each range
+    * on its own connection of the default DataSource.
+    *
+    * @param clause conditional part of a where clause without "WHERE", or null.
+    */
+   static <T> void parallelScan(final Class<T> clazz, final String clause, final int parallelism, final Consumer<? super T> consumer, final Object... args)
+   {
+      if (parallelism < 1) {
+         throw new IllegalArgumentException("parallelism must be greater than zero");
+      }
+      final Introspected introspected = Introspector.getIntrospected(clazz);
+      final List<AttributeInfo> idFcInfos = introspected.getIdFcInfos();
+      if (idFcInfos.size() != 1 || !isIntegralType(idFcInfos.get(0).getType())) {
+         throw new RuntimeException("parallelScan() requires a single integral @Id column: " + clazz.getName());
+      }
+
+      if (clause != null) {
+         final Matcher nonCondition = NON_CONDITION.matcher(topLevelOf(clause));
+         if (nonCondition.find()) {
+            throw new IllegalArgumentException("parallelScan() requires a pure condition, the clause has " + nonCondition.group(1) + ": " + clause);
+         }
+      }
+
+      final String tableName = introspected.getDelimitedTableName();
+      final String idColumn = tableName + '.' + introspected.getIdColumnNames()[0];
+      final String condition = clause == null || clause.isEmpty() ? "" : "(" + clause + ") AND ";
+      final Object[] minMax = SqlClosure.sqlExecute(connection -> {
+         final String sql = "SELECT MIN(" + idColumn + "), MAX(" + idColumn + ") FROM " + tableName + ' ' + tableName
+            + (condition.isEmpty() ? "" : " WHERE " + clause);
+         final ExpandedSql expanded = ExpandedSql.expand(connection, sql, args);
+         try (final PreparedStatement stmt = connection.prepareStatement(expanded.sql)) {
+            populateStatementParameters(stmt, expanded.args);
+            try (final ResultSet resultSet = stmt.executeQuery()) {
+               return resultSet.next() ? new Object[] {resultSet.getObject(1), resultSet.getObject(2)} : null;
+            }
+         }
+      });
+      if (minMax == null || minMax[0] == null) {
+         return;
+      }
+
+      final long min = idToLong(minMax[0]);
+      final long max = idToLong(minMax[1]);
+      // max - min and the range width are unsigned, so ranges spanning the whole long domain do not overflow.
+      final long rangeWidth = Long.divideUnsigned(max - min, parallelism);
+      final String rangeClause = condition + idColumn + ">=? AND " + idColumn + "<=?";
+
+      final ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+      try {
+         final List<Future<?>> futures = new ArrayList<>(parallelism);
+         long lo = min;
+         while (true) {
+            final long hi = Long.compareUnsigned(max - lo, rangeWidth) <= 0 ? max : lo + rangeWidth;
+            final Object[] rangeArgs = Arrays.copyOf(args, args.length + 2);
+            rangeArgs[args.length] = lo;
+            rangeArgs[args.length + 1] = hi;
+            futures.add(executor.submit(() -> SqlClosure.sqlExecute(connection -> {
+               final ExpandedSql expanded = ExpandedSql.expand(connection, generateSelectFromClause(clazz, rangeClause), rangeArgs);
+               final PreparedStatement stmt = connection.prepareStatement(expanded.sql);
+               statementToConsumer(stmt, clazz, consumer, expanded.args);
+               return null;
+            })));
+            if (hi == max) {
+               break;
+            }
+            lo = hi + 1;
+         }
+
+         for (final Future<?> future : futures) {
+            future.get();
+         }
+      }
+      catch (InterruptedException e) {
+         Thread.currentThread().interrupt();
+         throw new RuntimeException(e);
+      }
+      catch (ExecutionException e) {
+         final Throwable cause = e.getCause();
+         if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+         }
+         if (cause instanceof Error) {
+            throw (Error) cause;
+         }
+         throw new RuntimeException(cause);
+      }
+      finally {
+         executor.shutdownNow();
+      }
+   }
+
+   private static boolean isIntegralType(final Class<?> type) {
+      return type == Integer.class || type == Long.class || type == Short.class || type == Byte.class
+         || type == short.class || type == byte.class || type == BigInteger.class;
+   }
+
+   /**
+    * @return the MIN or MAX of the id column, which must fit into a long for the ranges to be split.
+    */
+   private static long idToLong(final Object id) {
+      try {
+         if (id instanceof BigInteger) {
+            return ((BigInteger) id).longValueExact();
+         }
+         if (id instanceof BigDecimal) {
+            return ((BigDecimal) id).longValueExact();
+         }
+      }
+      catch (ArithmeticException e) {
+         throw new RuntimeException("parallelScan() requires @Id values within the range of long, got " + id);
+      }
+      return ((Number) id).longValue();
+   }
+
+   /**
+    * @return the clause with quoted literals and parenthesized parts blanked, so only its top level remains.
+    */
+   private static String topLevelOf(final String clause) {
+      final StringBuilder sb = new StringBuilder(clause.length());
+      int depth = 0;
+      char quote = 0;
+      for (int i = 0; i < clause.length(); i++) {
+         final char c = clause.charAt(i);
+         if (quote != 0) {
+            if (c == quote) {
+               quote = 0;
+            }
+            sb.append(' ');
+            continue;
+         }
+         if (c == '\'' || c == '"') {
+            quote = c;
+         }
+         else if (c == '(') {
+            depth++;
+         }
+         else if (c == ')' && depth > 0) {
+            depth--;
+            sb.append(' ');
+            continue;
+         }
+         sb.append(depth == 0 && quote == 0 ? c : ' ');
+      }
+      return sb.toString();
    }
 
    static <T> T objectFromClause(final Connection connection, final Class<T> clazz, final String clause, final Object... args) throws SQLException
    {
-      final String sql = generateSelectFromClause(clazz, clause);
-      final PreparedStatement stmt = connection.prepareStatement(sql);
-      return statementToObject(stmt, clazz, args);
+      final ExpandedSql expanded = ExpandedSql.expand(connection, generateSelectFromClause(clazz, clause), args);
+      final PreparedStatement stmt = connection.prepareStatement(expanded.sql);
+      return statementToObject(stmt, clazz, expanded.args);
    }
 
    static <T> T objectFromClause(final Connection connection, final T target, final String clause, final Object... args) throws SQLException
    {
-      final String sql = generateSelectFromClause(target.getClass(), clause);
-      final PreparedStatement stmt = connection.prepareStatement(sql);
-      return statementToObject(stmt, target, args);
+      final ExpandedSql expanded = ExpandedSql.expand(connection, generateSelectFromClause(target.getClass(), clause), args);
+      final PreparedStatement stmt = connection.prepareStatement(expanded.sql);
+      return statementToObject(stmt, target, expanded.args);
    }
 
    static <T> int countObjectsFromClause(final Connection connection, final Class<T> clazz, final String clause, final Object... args) throws SQLException
@@ -204,8 +608,9 @@ class OrmReader extends OrmBase
 
    static Number numberFromSql(final Connection connection, final String sql, final Object... args) throws SQLException
    {
-      try (final PreparedStatement stmt = connection.prepareStatement(sql)) {
-         populateStatementParameters(stmt, args);
+      final ExpandedSql expanded = ExpandedSql.expand(connection, sql, args);
+      try (final PreparedStatement stmt = connection.prepareStatement(expanded.sql)) {
+         populateStatementParameters(stmt, expanded.args);
          try (final ResultSet resultSet = stmt.executeQuery()) {
             if (resultSet.next()) {
                return (Number) resultSet.getObject(1);
@@ -215,6 +620,72 @@ class OrmReader extends OrmBase
       }
    }
 
+   static long[] longsFromSql(final Connection connection, final String sql, final Object... args) throws SQLException
+   {
+      return columnFromSql(connection, sql, long[]::new, (resultSet, values, index) -> values[index] = resultSet.getLong(1), args);
+   }
+
+   static int[] intsFromSql(final Connection connection, final String sql, final Object... args) throws SQLException
+   {
+      return columnFromSql(connection, sql, int[]::new, (resultSet, values, index) -> values[index] = resultSet.getInt(1), args);
+   }
+
+   static double[] doublesFromSql(final Connection connection, final String sql, final Object... args) throws SQLException
+   {
+      return columnFromSql(connection, sql, double[]::new, (resultSet, values, index) -> values[index] = resultSet.getDouble(1), args);
+   }
+
+   static String[] stringsFromSql(final Connection connection, final String sql, final Object... args) throws SQLException
+   {
+      return columnFromSql(connection, sql, String[]::new, (resultSet, values, index) -> values[index] = resultSet.getString(1), args);
+   }
+
+   /**
+    * Stores the first column of the current row into an array of primitives or Strings without boxing.
+    */
+   @FunctionalInterface
+   private interface ColumnReader<A>
+   {
+      void read(ResultSet resultSet, A values, int index) throws SQLException;
+   }
+
+   /**
+    * Reads the first column of all rows into an array growing by half its length when full, trimmed to the row count.
+    */
+   private static <A> A columnFromSql(final Connection connection, final String sql, final IntFunction<A> newArray, final ColumnReader<A> reader, final Object... args) throws SQLException
+   {
+      final ExpandedSql expanded = ExpandedSql.expand(connection, sql, args);
+      try (final PreparedStatement stmt = connection.prepareStatement(expanded.sql)) {
+         populateStatementParameters(stmt, expanded.args);
+         try (final ResultSet resultSet = stmt.executeQuery()) {
+            A values = newArray.apply(INITIAL_ARRAY_SIZE);
+            int length = INITIAL_ARRAY_SIZE;
+            int count = 0;
+            while (resultSet.next()) {
+               if (count == length) {
+                  length = grow(count);
+                  values = copyOf(values, count, newArray.apply(length));
+               }
+               reader.read(resultSet, values, count++);
+            }
+            return count == length ? values : copyOf(values, count, newArray.apply(count));
+         }
+      }
+   }
+
+   private static <A> A copyOf(final A values, final int count, final A newValues) {
+      System.arraycopy(values, 0, newValues, 0, count);
+      return newValues;
+   }
+
+   private static int grow(final int length) {
+      final int newLength = length + (length >> 1);
+      if (newLength < 0) {
+         throw new OutOfMemoryError("Too many rows for an array");
+      }
+      return newLength;
+   }
+
    /**
     * package private for testing.
     */
@@ -242,12 +713,221 @@ class OrmReader extends OrmBase
       });
    }
 
-   private static class ResultSetToObjectProcessor<T> {
+   /**
+    * Executes the statement and drains all rows into a {@link RowBuffer}. <b>The PreparedStatement will be closed.</b>
+    */
+   static RowBuffer statementToRowBuffer(final PreparedStatement stmt, final Object... args) throws SQLException
+   {
+      return statementToRowBuffer(stmt, Long.MAX_VALUE, args);
+   }
+
+   /**
+    * Like {@link #statementToRowBuffer(PreparedStatement, Object...)}, but once the estimated size of the buffered
+    * rows exceeds {@code heapBudget} bytes all further rows go to {@link RowBuffer#spillFile}.
+    */
+   static RowBuffer statementToRowBuffer(final PreparedStatement stmt, final long heapBudget, final Object... args) throws SQLException
+   {
+      RowSpillFile spillFile = null;
+      try (final PreparedStatement closeStmt = stmt;
+           final ResultSet resultSet = statementToResultSet(stmt, args)) {
+         final ResultSetMetaData metaData = resultSet.getMetaData();
+         final RowBuffer rowBuffer = new RowBuffer(metaData);
+         final int columnCount = rowBuffer.columnNames.length;
+         long heapBytes = 0;
+         while (resultSet.next()) {
+            final Object[] row = new Object[columnCount];
+            for (int colIdx = columnCount; colIdx > 0; colIdx--) {
+               row[colIdx - 1] = getDetachedObject(resultSet, colIdx);
+            }
+            if (spillFile == null && heapBudget != Long.MAX_VALUE) {
+               heapBytes += estimateRowBytes(row);
+               if (heapBytes > heapBudget) {
+                  spillFile = new RowSpillFile();
+               }
+            }
+            if (spillFile == null) {
+               rowBuffer.rows.add(row);
+            }
+            else {
+               spillFile.append(row);
+            }
+         }
+         rowBuffer.spillFile = spillFile;
+         return rowBuffer;
+      }
+      catch (SQLException | IOException | RuntimeException e) {
+         if (spillFile != null) {
+            try {
+               spillFile.close();
+            }
+            catch (IOException ignored) {
+               // the original exception is more interesting
+            }
+         }
+         if (e instanceof RuntimeException) {
+            throw (RuntimeException) e;
+         }
+         throw e instanceof SQLException ? (SQLException) e : new SQLException(e);
+      }
+   }
+
+   /**
+    * A rough estimate of the heap occupied by a row of detached column values, as a compressed-oops JVM lays it out.
+    */
+   static long estimateRowBytes(final Object[] row)
+   {
+      long bytes = 16 + 4L * row.length;
+      for (final Object value : row) {
+         bytes += estimateValueBytes(value);
+      }
+      return bytes;
+   }
+
+   private static long estimateValueBytes(final Object value)
+   {
+      if (value instanceof String) {
+         return 40 + 2L * ((String) value).length();
+      }
+      else if (value instanceof byte[]) {
+         return 16 + ((byte[]) value).length;
+      }
+      else if (value instanceof BigDecimal || value instanceof Timestamp) {
+         return 40;
+      }
+      return value != null ? 16 : 0;
+   }
+
+   /**
+    * Executes the statement and returns all rows as {@link ResultRow}s sharing one column index.
+    * <b>The PreparedStatement will be closed.</b>
+    */
+   static List<ResultRow> statementToRows(final PreparedStatement stmt, final Object... args) throws SQLException
+   {
+      try (final PreparedStatement closeStmt = stmt;
+           final ResultSet resultSet = statementToResultSet(stmt, args)) {
+         final ResultSetMetaData metaData = resultSet.getMetaData();
+         final String[] labels = new String[metaData.getColumnCount()];
+         for (int colIdx = labels.length; colIdx > 0; colIdx--) {
+            labels[colIdx - 1] = metaData.getColumnLabel(colIdx);
+         }
+         final ResultRow.Columns columns = new ResultRow.Columns(labels);
+         final List<ResultRow> rows = new ArrayList<>();
+         while (resultSet.next()) {
+            final Object[] values = new Object[labels.length];
+            for (int colIdx = labels.length; colIdx > 0; colIdx--) {
+               values[colIdx - 1] = getDetachedObject(resultSet, colIdx);
+            }
+            rows.add(new ResultRow(columns, values));
+         }
+         return rows;
+      }
+   }
+
+   /**
+    * @return the column value, with a Clob read into a String as a Clob is not readable anymore when the connection is gone.
+    */
+   private static Object getDetachedObject(final ResultSet resultSet, final int colIdx) throws SQLException
+   {
+      final Object value = resultSet.getObject(colIdx);
+      try {
+         return value instanceof Clob ? Introspected.readClob((Clob) value) : value;
+      }
+      catch (IOException e) {
+         throw new SQLException(e);
+      }
+   }
+
+   static RowBuffer rowBufferFromSelect(final Connection connection, final String select, final Object... args) throws SQLException
+   {
+      final ExpandedSql expanded = ExpandedSql.expand(connection, select, args);
+      return statementToRowBuffer(connection.prepareStatement(expanded.sql), expanded.args);
+   }
+
+   static List<ResultRow> sqlToRows(final Connection connection, final String sql, final Object... args) throws SQLException
+   {
+      final ExpandedSql expanded = ExpandedSql.expand(connection, sql, args);
+      return statementToRows(connection.prepareStatement(expanded.sql), expanded.args);
+   }
+
+   static RowBuffer rowBufferFromClause(final Connection connection, final Class<?> clazz, final String clause, final Object... args) throws SQLException
+   {
+      return rowBufferFromClause(connection, clazz, clause, Long.MAX_VALUE, args);
+   }
+
+   static RowBuffer rowBufferFromClause(final Connection connection, final Class<?> clazz, final String clause, final long heapBudget, final Object... args) throws SQLException
+   {
+      final ExpandedSql expanded = ExpandedSql.expand(connection, generateSelectFromClause(clazz, clause), args);
+      return statementToRowBuffer(connection.prepareStatement(expanded.sql), heapBudget, expanded.args);
+   }
+
+   /**
+    * Maps buffered rows. Needs no database resources.
+    */
+   static <T> List<T> rowBufferToList(final RowBuffer rowBuffer, final Class<T> clazz)
+   {
+      return rowBufferToList(rowBuffer, clazz, resultGuard);
+   }
+
+   static <T> List<T> rowBufferToList(final RowBuffer rowBuffer, final Class<T> clazz, final ResultGuard guard)
+   {
+      if (rowBuffer.rows.isEmpty()) {
+         return new ArrayList<>();
+      }
+      try {
+         final ResultSetToObjectProcessor<T> processor = new ResultSetToObjectProcessor<>(rowBuffer, new HashSet<>());
+         return processor.process(clazz, guard);
+      }
+      catch (SQLException e) {
+         // not thrown as no ResultSet is involved
+         throw new RuntimeException(e);
+      }
+   }
+
+   /**
+    * The raw column values of a result drained row by row into plain arrays, together with the column metadata
+    * needed to map them later on. So statement and connection can be released before any mapping work is done.
+    */
+   static final class RowBuffer
+   {
+      final String[] columnNames;
+      final String[] tableNames;
+      final ArrayList<Object[]> rows = new ArrayList<>();
+      /** rows beyond the heap budget, null if none. */
+      RowSpillFile spillFile;
+
+      RowBuffer(final ResultSetMetaData metaData) throws SQLException {
+         columnNames = new String[metaData.getColumnCount()];
+         tableNames = new String[columnNames.length];
+         readColumnMetaData(metaData, columnNames, tableNames);
+      }
+
+      RowBuffer(final String[] columnNames, final String[] tableNames) {
+         this.columnNames = columnNames;
+         this.tableNames = tableNames;
+      }
+   }
+
+   static void readColumnMetaData(final ResultSetMetaData metaData, final String[] columnNames, final String[] tableNames) throws SQLException
+   {
+      for (int colIdx = columnNames.length; colIdx > 0; colIdx--) {
+         columnNames[colIdx - 1] = metaData.getColumnName(colIdx);
+         tableNames[colIdx - 1] = metaData.getTableName(colIdx);
+      }
+   }
+
+   static class ResultSetToObjectProcessor<T> {
       private final ResultSet resultSet;
       /** the provided target ({@link #process(Object)}) for a single row result or the target for the currently processed row in a multiple row result. */
       private T target;
       private final Set<String> ignoredColumns;
-      private ResultSetMetaData metaData;
+      /** column and table names by column index - 1. Read only once from the ResultSetMetaData. */
+      private String[] columnNames;
+      private String[] tableNames;
+      /** not null if the rows were drained into a {@link RowBuffer} before mapping. */
+      private final RowBuffer rowBuffer;
+      private int rowBufferIndex;
+      /** the values of the currently processed row if a {@link RowBuffer} is processed. */
+      private Object[] bufferedRow;
       private Introspected introspected;
       /** scope is the currently processed row. */
       private HashMap<String, Object> tableNameToEntitiesInCurrentRow;
@@ -262,6 +942,11 @@ class OrmReader extends OrmBase
       private Object currentParent;
       /** the per row created targets in a multi row result */
       private List<T> targets;
+      /** null if the result is not limited. */
+      private ResultGuard guard;
+      /** estimated size of the column values processed so far, only counted with a {@link #guard}. */
+      private long bytes;
+      private boolean isTruncated;
 
       /**
        *
@@ -270,12 +955,46 @@ class OrmReader extends OrmBase
       public ResultSetToObjectProcessor(final ResultSet resultSet, final Set<String> ignoredColumns) {
          this.resultSet = resultSet;
          this.ignoredColumns = ignoredColumns;
+         this.rowBuffer = null;
+      }
+
+      /**
+       *
+       * @param rowBuffer Must contain at least one row.
+       */
+      ResultSetToObjectProcessor(final RowBuffer rowBuffer, final Set<String> ignoredColumns) {
+         this.resultSet = null;
+         this.ignoredColumns = ignoredColumns;
+         this.rowBuffer = rowBuffer;
+         this.columnNames = rowBuffer.columnNames;
+         this.tableNames = rowBuffer.tableNames;
+         this.bufferedRow = rowBuffer.rows.get(0);
+      }
+
+      private void readMetaData() throws SQLException {
+         if (columnNames == null) {
+            final ResultSetMetaData metaData = resultSet.getMetaData();
+            columnNames = new String[metaData.getColumnCount()];
+            tableNames = new String[columnNames.length];
+            readColumnMetaData(metaData, columnNames, tableNames);
+         }
+      }
+
+      private boolean nextRow() throws SQLException {
+         if (rowBuffer == null) {
+            return resultSet.next();
+         }
+         if (++rowBufferIndex < rowBuffer.rows.size()) {
+            bufferedRow = rowBuffer.rows.get(rowBufferIndex);
+            return true;
+         }
+         return false;
       }
 
       T forTestOnly(final T target) throws SQLException {
          this.target = target;
 
-         metaData = resultSet.getMetaData();
+         readMetaData();
          introspected = Introspector.getIntrospected(target.getClass());
          tableNameToEntitiesInCurrentRow = new HashMap<>();
          tableNameToEntitiesInCurrentRow.putIfAbsent(introspected.getTableName().toUpperCase(), target);
@@ -289,7 +1008,7 @@ class OrmReader extends OrmBase
                tableNameToEntities = tableNameToEntitiesInCurrentRow;
                tableNameToEntitiesInCurrentRow = new HashMap<>();
             }
-            for (int colIdx = metaData.getColumnCount(); colIdx > 0; colIdx--) {
+            for (int colIdx = columnNames.length; colIdx > 0; colIdx--) {
                processColumn(colIdx);
             }
 
@@ -318,13 +1037,13 @@ class OrmReader extends OrmBase
 
       T process(final T target) throws SQLException {
          this.target = target;
-         metaData = resultSet.getMetaData();
+         readMetaData();
          introspected = Introspector.getIntrospected(target.getClass());
          tableNameToEntitiesInCurrentRow = new HashMap<>();
          tableNameToEntitiesInCurrentRow.putIfAbsent(introspected.getTableName().toUpperCase(), target);
          tableNameToEntities = new HashMap<>();
 
-         for (int colIdx = metaData.getColumnCount(); colIdx > 0; colIdx--) {
+         for (int colIdx = columnNames.length; colIdx > 0; colIdx--) {
             processColumn(colIdx);
          }
 
@@ -332,45 +1051,106 @@ class OrmReader extends OrmBase
       }
 
       List<T> process(final Class<T> targetClass) throws SQLException {
+         return process(targetClass, ResultGuard.UNLIMITED);
+      }
 
-         metaData = resultSet.getMetaData();
+      List<T> process(final Class<T> targetClass, final ResultGuard guard) throws SQLException {
+         // collected into a GuardedList from the start, so truncation does not copy the rows
+         final ResultGuard.GuardedList<T> guardedTargets = guard.truncate ? new ResultGuard.GuardedList<>() : null;
+         targets = guardedTargets != null ? guardedTargets : new ArrayList<>();
+         this.guard = guard.isUnlimited() ? null : guard;
+         process(targetClass, targets::add);
+         if (guardedTargets != null) {
+            guardedTargets.isTruncated = isTruncated;
+         }
+         return targets;
+      }
+
+      /**
+       * Maps the current and all following rows, handing each target to the consumer as soon as it is complete.
+       */
+      void process(final Class<T> targetClass, final Consumer<? super T> consumer) throws SQLException {
+
+         readMetaData();
          introspected = Introspector.getIntrospected(targetClass);
-         targets = new ArrayList<>();
 
          do {
-            try {
-               target = targetClass.newInstance();
-               tableNameToEntitiesInCurrentRow = new HashMap<>();
-               tableNameToEntitiesInCurrentRow.put(introspected.getTableName().toUpperCase(), target);
-            }
-            catch (InstantiationException | IllegalAccessException e) {
-               throw new RuntimeException(e);
+            if (guard != null && currentRow >= guard.maxRows) {
+               if (exceeded("rows")) {
+                  return;
+               }
             }
+            newTarget(targetClass);
 
-            for (int colIdx = metaData.getColumnCount(); colIdx > 0; colIdx--) {
+            for (int colIdx = columnNames.length; colIdx > 0; colIdx--) {
                processColumn(colIdx);
             }
 
-            targets.add(target);
+            if (guard != null && bytes > guard.maxBytes) {
+               if (exceeded("bytes")) {
+                  return;
+               }
+            }
+            consumer.accept(target);
             currentRow++;
 
-         } while (resultSet.next());
+         } while (nextRow());
+      }
 
-         return targets;
+      /**
+       * Maps only the current row into a new target. Metadata are read on the first call only, so a caller moving
+       * the ResultSet forward itself can call this for every row.
+       */
+      T processRow(final Class<T> targetClass) throws SQLException {
+         readMetaData();
+         if (introspected == null) {
+            introspected = Introspector.getIntrospected(targetClass);
+         }
+         newTarget(targetClass);
+         for (int colIdx = columnNames.length; colIdx > 0; colIdx--) {
+            processColumn(colIdx);
+         }
+         currentRow++;
+         return target;
+      }
+
+      private void newTarget(final Class<T> targetClass) {
+         try {
+            target = targetClass.newInstance();
+            tableNameToEntitiesInCurrentRow = new HashMap<>();
+            tableNameToEntitiesInCurrentRow.put(introspected.getTableName().toUpperCase(), target);
+         }
+         catch (InstantiationException | IllegalAccessException e) {
+            throw new RuntimeException(e);
+         }
+      }
+
+      /**
+       * @return true if the result is to be truncated, throws if it is to fail.
+       */
+      private boolean exceeded(final String limit) {
+         if (guard.truncate) {
+            isTruncated = true;
+            return true;
+         }
+         throw new RuntimeException("Result exceeds the " + limit + " limit of " + guard);
       }
 
       private void processColumn(final int colIdx) throws SQLException {
-         final String columnName = metaData.getColumnName(colIdx);
+         final String columnName = columnNames[colIdx - 1];
          // To make names in ignoredColumns independend from database case sensitivity. Otherwise you have to write database dependent code.
          if (isIgnoredColumn(ignoredColumns, columnName)) {
             return;
          }
 
-         final Object columnValue = resultSet.getObject(colIdx);
+         final Object columnValue = bufferedRow != null ? bufferedRow[colIdx - 1] : resultSet.getObject(colIdx);
+         if (guard != null) {
+            bytes += estimateValueBytes(columnValue);
+         }
          if (columnValue == null) {
             return;
          }
-         String tableName = metaData.getTableName(colIdx);
+         String tableName = tableNames[colIdx - 1];
          // tableName is empty when aliases as in "SELECT (t.string_from_number + 1) as string_from_number " were used. See org.sansorm.QueryTest.testConverterLoad().
          if (!tableName.isEmpty() && !tableName.equalsIgnoreCase(introspected.getTableName())) {
             processColumnOfJoinedTable(columnName, columnValue, tableName);
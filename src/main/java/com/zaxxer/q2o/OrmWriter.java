@@ -20,6 +20,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.InvocationTargetException;
+import java.math.BigInteger;
 import java.sql.*;
 import java.util.*;
 
@@ -29,9 +30,21 @@ import java.util.*;
 class OrmWriter extends OrmBase
 {
    private static final int CACHE_SIZE = Integer.getInteger("com.zaxxer.sansorm.statementCacheSize", 500);
+   static final int INSERT_BATCH_SIZE = Integer.getInteger("com.zaxxer.q2o.insertBatchSize", 1000);
+   /** SQLite's default limit, the lowest of the common databases */
+   static final int MULTI_ROW_MAX_PARAMETERS = 999;
+   static final int UPDATE_BATCH_SIZE = Integer.getInteger("com.zaxxer.q2o.updateBatchSize", 1000);
+   static final int DELETE_CHUNK_SIZE = Integer.getInteger("com.zaxxer.q2o.deleteChunkSize", 512);
+   /** System property to keep batching where generated ids cannot be read back, instead of inserting row by row. */
+   static final String BATCH_WITHOUT_GENERATED_KEYS = "com.zaxxer.q2o.batchWithoutGeneratedKeys";
    private static final Map<Introspected, String> createStatementCache;
    private static final Map<Introspected, String> updateStatementCache;
+   private static final Map<Introspected, String[]> upsertStatementCache;
    private static final Logger logger = LoggerFactory.getLogger(OrmBase.class);
+   /** Databases whose drivers return the generated keys of all rows of a batch, e.g. SQLite's returns only the last. */
+   private static final Set<String> BATCH_GENERATED_KEYS_DATABASES = new HashSet<>(Arrays.asList("H2", "PostgreSQL", "MySQL", "MariaDB"));
+   /** Databases whose drivers return the generated keys of all rows of a multi-row INSERT, e.g. H2's returns only the last. */
+   private static final Set<String> MULTI_ROW_GENERATED_KEYS_DATABASES = new HashSet<>(Arrays.asList("PostgreSQL", "MySQL", "MariaDB"));
 
    static {
       createStatementCache = Collections.synchronizedMap(new LinkedHashMap<Introspected, String>(CACHE_SIZE) {
@@ -53,30 +66,187 @@ class OrmWriter extends OrmBase
             return this.size() > CACHE_SIZE;
          }
       });
+
+      upsertStatementCache = Collections.synchronizedMap(new LinkedHashMap<Introspected, String[]>(CACHE_SIZE) {
+         private static final long serialVersionUID = 1851384722536190466L;
+
+         @Override
+         protected boolean removeEldestEntry(final Map.Entry<Introspected, String[]> eldest)
+         {
+            return this.size() > CACHE_SIZE;
+         }
+      });
+   }
+
+   /**
+    * The statements inserting or updating a row at once.
+    */
+   enum UpsertSyntax
+   {
+      /** H2: MERGE INTO table (columns) KEY (ids) VALUES (...) */
+      MERGE_KEY,
+      /** PostgreSQL 9.5+, SQLite 3.24+: INSERT INTO table (columns) VALUES (...) ON CONFLICT (ids) DO UPDATE SET ... */
+      ON_CONFLICT,
+      /** Other databases: UPDATE, and INSERT if no row was updated */
+      NONE;
+
+      static UpsertSyntax of(final Connection connection) throws SQLException
+      {
+         final DatabaseMetaData metaData = connection.getMetaData();
+         final int version = metaData.getDatabaseMajorVersion() * 100 + metaData.getDatabaseMinorVersion();
+         switch (metaData.getDatabaseProductName()) {
+            case "H2":
+               return MERGE_KEY;
+            case "PostgreSQL":
+               return version >= 905 ? ON_CONFLICT : NONE;
+            case "SQLite":
+               return version >= 324 ? ON_CONFLICT : NONE;
+            default:
+               return NONE;
+         }
+      }
    }
 
    static <T> void insertListBatched(final Connection connection, final Iterable<T> iterable) throws SQLException
    {
-      final Iterator<T> iterableIterator = iterable.iterator();
-      if (!iterableIterator.hasNext()) {
+      insertBatched(connection, iterable.iterator(), false);
+   }
+
+   /**
+    * Inserts the objects in chunks of {@link #INSERT_BATCH_SIZE}, consuming the iterator only as far as the current
+    * chunk.
+    * <p>
+    * Where the driver does not return the generated keys of all rows of a batch, objects with a generated id are
+    * inserted row by row through the same statement to get their ids, unless {@link #BATCH_WITHOUT_GENERATED_KEYS}
+    * is set. Then they are batched anyway and their ids are left unset, which is logged as a warning.
+    *
+    * @param multiRow rewrite each chunk into multi-row INSERT ... VALUES (...),(...) statements, unless only a batch
+    *                 or row by row inserts would return the generated keys of all rows
+    */
+   static <T> void insertBatched(final Connection connection, final Iterator<T> iterator, final boolean multiRow) throws SQLException
+   {
+      if (!iterator.hasNext()) {
          return;
       }
 
-      final Class<?> clazz = iterableIterator.next().getClass();
-      final Introspected introspected = Introspector.getIntrospected(clazz);
+      final T first = iterator.next();
+      final Introspected introspected = Introspector.getIntrospected(first.getClass());
       final boolean hasSelfJoinColumn = introspected.hasSelfJoinColumn();
       if (hasSelfJoinColumn) {
          throw new RuntimeException("insertListBatched() is not supported for objects with self-referencing columns due to Derby limitations");
       }
 
+      final boolean hasGeneratedId = introspected.hasGeneratedId();
+      final String databaseProductName = connection.getMetaData().getDatabaseProductName();
+      final boolean fillBatchIds = hasGeneratedId && BATCH_GENERATED_KEYS_DATABASES.contains(databaseProductName);
+      final boolean fillMultiRowIds = hasGeneratedId && MULTI_ROW_GENERATED_KEYS_DATABASES.contains(databaseProductName);
+      final boolean skipIds = hasGeneratedId && !fillBatchIds && !fillMultiRowIds && Boolean.getBoolean(BATCH_WITHOUT_GENERATED_KEYS);
+      if (skipIds) {
+         logger.warn("{} does not return the generated keys of a batch, ids of the inserted {} objects are not set",
+                     databaseProductName, introspected.getTableName());
+      }
+      if (multiRow && (!hasGeneratedId || fillMultiRowIds || skipIds)) {
+         insertMultiRow(connection, introspected, first, iterator, fillMultiRowIds);
+         return;
+      }
+
       final AttributeInfo[] insertableFcInfos = introspected.getInsertableFcInfos();
       try (final PreparedStatement stmt = createStatementForInsert(connection, introspected, insertableFcInfos)) {
          final int[] parameterTypes = getParameterTypes(stmt);
-         for (final T item : iterable) {
+         if (hasGeneratedId && !fillBatchIds && !skipIds) {
+            // the driver would not return the keys of the batch, so insert row by row with the same statement
+            for (T item = first; ; item = iterator.next()) {
+               setStatementParameters(item, introspected, insertableFcInfos, stmt, parameterTypes, null);
+               stmt.executeUpdate();
+               fillGeneratedId(item, introspected, stmt, /*checkExistingId=*/false);
+               if (!iterator.hasNext()) {
+                  return;
+               }
+            }
+         }
+
+         final List<T> items = new ArrayList<>(fillBatchIds ? INSERT_BATCH_SIZE : 0);
+         int batched = 0;
+         for (T item = first; ; item = iterator.next()) {
             setStatementParameters(item, introspected, insertableFcInfos, stmt, parameterTypes, null);
             stmt.addBatch();
+            if (fillBatchIds) {
+               items.add(item);
+            }
+            final boolean isLast = !iterator.hasNext();
+            if (++batched == INSERT_BATCH_SIZE || isLast) {
+               stmt.executeBatch();
+               if (fillBatchIds) {
+                  fillGeneratedIds(items, introspected, stmt);
+                  items.clear();
+               }
+               batched = 0;
+            }
+            if (isLast) {
+               return;
+            }
+         }
+      }
+   }
+
+   /**
+    * Inserts up to {@link #INSERT_BATCH_SIZE} rows per statement, limited to {@link #MULTI_ROW_MAX_PARAMETERS}
+    * parameters. The statement for full chunks is prepared once, only the last chunk may need another one.
+    */
+   private static <T> void insertMultiRow(final Connection connection,
+                                          final Introspected introspected,
+                                          final T first,
+                                          final Iterator<T> iterator,
+                                          final boolean fillIds) throws SQLException
+   {
+      final AttributeInfo[] insertableFcInfos = introspected.getInsertableFcInfos();
+      final int rowsPerStatement = Math.max(1, Math.min(INSERT_BATCH_SIZE, MULTI_ROW_MAX_PARAMETERS / Math.max(1, insertableFcInfos.length)));
+      final List<T> rows = new ArrayList<>(rowsPerStatement);
+      PreparedStatement fullStmt = null;
+      int[] fullParameterTypes = null;
+      try {
+         for (T item = first; ; item = iterator.next()) {
+            rows.add(item);
+            final boolean isLast = !iterator.hasNext();
+            if (rows.size() == rowsPerStatement) {
+               if (fullStmt == null) {
+                  fullStmt = createStatementForInsert(connection, introspected, insertableFcInfos, rowsPerStatement);
+                  fullParameterTypes = getParameterTypes(fullStmt);
+               }
+               executeMultiRow(rows, introspected, insertableFcInfos, fullStmt, fullParameterTypes, fillIds);
+               rows.clear();
+            }
+            else if (isLast) {
+               try (final PreparedStatement stmt = createStatementForInsert(connection, introspected, insertableFcInfos, rows.size())) {
+                  executeMultiRow(rows, introspected, insertableFcInfos, stmt, getParameterTypes(stmt), fillIds);
+               }
+            }
+            if (isLast) {
+               return;
+            }
+         }
+      }
+      finally {
+         if (fullStmt != null) {
+            fullStmt.close();
          }
-         stmt.executeBatch();
+      }
+   }
+
+   private static <T> void executeMultiRow(final List<T> rows,
+                                           final Introspected introspected,
+                                           final AttributeInfo[] fcInfos,
+                                           final PreparedStatement stmt,
+                                           final int[] parameterTypes,
+                                           final boolean fillIds) throws SQLException
+   {
+      int parameterIndex = 1;
+      for (final T row : rows) {
+         parameterIndex = setStatementParameters(row, introspected, fcInfos, stmt, parameterTypes, null, parameterIndex);
+      }
+      stmt.executeUpdate();
+      if (fillIds) {
+         fillGeneratedIds(rows, introspected, stmt);
       }
    }
 
@@ -145,6 +315,120 @@ class OrmWriter extends OrmBase
       return target;
    }
 
+   /**
+    * Updates the objects with a single prepared statement, flushing every {@code batchSize} rows with executeBatch().
+    *
+    * @param excludedColumns the columns not to update, null to update all updatable columns (cached statement)
+    * @return the update count of every object, in iteration order
+    */
+   static <T> int[] updateListBatched(final Connection connection, final Iterable<T> iterable, final Set<String> excludedColumns, final int batchSize) throws SQLException
+   {
+      if (batchSize < 1) {
+         throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+      }
+      final Iterator<T> iterableIterator = iterable.iterator();
+      if (!iterableIterator.hasNext()) {
+         return new int[0];
+      }
+
+      final Class<?> clazz = iterableIterator.next().getClass();
+      final Introspected introspected = Introspector.getIntrospected(clazz);
+      final AttributeInfo[] updatableFcInfos = introspected.getUpdatableFcInfos();
+      int[] updateCounts = new int[batchSize];
+      int count = 0;
+      try (final PreparedStatement stmt = excludedColumns == null
+         ? createStatementForUpdate(connection, introspected, updatableFcInfos)
+         : createStatementForUpdate(connection, introspected, updatableFcInfos, excludedColumns)) {
+         final int[] parameterTypes = getParameterTypes(stmt);
+         int batched = 0;
+         for (final T item : iterable) {
+            final int parameterIndex = setStatementParameters(item, introspected, updatableFcInfos, stmt, parameterTypes, excludedColumns);
+            setIdParameters(item, introspected, stmt, parameterTypes, parameterIndex);
+            stmt.addBatch();
+            if (++batched == batchSize) {
+               updateCounts = appendCounts(updateCounts, count, stmt.executeBatch());
+               count += batched;
+               batched = 0;
+            }
+         }
+         if (batched > 0) {
+            updateCounts = appendCounts(updateCounts, count, stmt.executeBatch());
+            count += batched;
+         }
+      }
+      return updateCounts.length == count ? updateCounts : Arrays.copyOf(updateCounts, count);
+   }
+
+   static <T> void upsertObjects(final Connection connection, final Iterable<T> iterable) throws SQLException
+   {
+      upsertObjects(connection, iterable, UpsertSyntax.of(connection));
+   }
+
+   /**
+    * Inserts the objects or updates their rows if they exist, by batches of a single statement where the database has
+    * one. Objects whose generated id is not set yet are always inserted.
+    */
+   static <T> void upsertObjects(final Connection connection, final Iterable<T> iterable, final UpsertSyntax syntax) throws SQLException
+   {
+      final Iterator<T> iterableIterator = iterable.iterator();
+      if (!iterableIterator.hasNext()) {
+         return;
+      }
+
+      final Class<?> clazz = iterableIterator.next().getClass();
+      final Introspected introspected = Introspector.getIntrospected(clazz);
+      if (introspected.getIdColumnNames().length == 0) {
+         throw new RuntimeException("No id columns provided in: " + clazz.getName());
+      }
+      final AttributeInfo[] upsertFcInfos = getUpsertFcInfos(introspected);
+      final AttributeInfo[] updatableFcInfos = introspected.getUpdatableFcInfos();
+      final String sql = createSqlForUpsert(introspected, upsertFcInfos, syntax);
+      final AttributeInfo[] insertableFcInfos = introspected.getInsertableFcInfos();
+      PreparedStatement insertStmt = null;
+      int[] insertTypes = null;
+      try (final PreparedStatement upsertStmt = connection.prepareStatement(sql);
+           final PreparedStatement updateStmt = syntax == UpsertSyntax.NONE ? createStatementForUpdate(connection, introspected, updatableFcInfos) : null) {
+         final int[] upsertTypes = getParameterTypes(upsertStmt);
+         final int[] updateTypes = updateStmt != null ? getParameterTypes(updateStmt) : null;
+         int batched = 0;
+         for (final T item : iterable) {
+            if (introspected.hasGeneratedId() && !hasGeneratedIdValue(item, introspected)) {
+               if (insertStmt == null) {
+                  insertStmt = createStatementForInsert(connection, introspected, insertableFcInfos);
+                  insertTypes = getParameterTypes(insertStmt);
+               }
+               setStatementParameters(item, introspected, insertableFcInfos, insertStmt, insertTypes, null);
+               insertStmt.executeUpdate();
+               fillGeneratedId(item, introspected, insertStmt, /*checkExistingId=*/false);
+               continue;
+            }
+            if (updateStmt != null) {
+               final int parameterIndex = setStatementParameters(item, introspected, updatableFcInfos, updateStmt, updateTypes, null);
+               setIdParameters(item, introspected, updateStmt, updateTypes, parameterIndex);
+               if (updateStmt.executeUpdate() == 0) {
+                  setStatementParameters(item, introspected, upsertFcInfos, upsertStmt, upsertTypes, null);
+                  upsertStmt.executeUpdate();
+               }
+               continue;
+            }
+            setStatementParameters(item, introspected, upsertFcInfos, upsertStmt, upsertTypes, null);
+            upsertStmt.addBatch();
+            if (++batched == UPDATE_BATCH_SIZE) {
+               upsertStmt.executeBatch();
+               batched = 0;
+            }
+         }
+         if (batched > 0) {
+            upsertStmt.executeBatch();
+         }
+      }
+      finally {
+         if (insertStmt != null) {
+            insertStmt.close();
+         }
+      }
+   }
+
    static <T> int deleteObject(final Connection connection, final T target) throws SQLException
    {
       final Class<?> clazz = target.getClass();
@@ -189,18 +473,100 @@ class OrmWriter extends OrmBase
       return executeUpdate(connection, sql.toString(), args);
    }
 
-   static <T> int deleteObjects(Connection connection, Class<T> clazz, List<T> objects) throws SQLException {
-      return deleteByWhereClause(connection, clazz, idsAsInClause(clazz, objects));
+   /**
+    * Deletes the objects by their bound ids. A single primary key is deleted with "id IN (?)" in chunks of at most
+    * {@link #DELETE_CHUNK_SIZE} ids, each chunk bound like a collection argument by {@link ExpandedSql}. Composite keys
+    * are deleted by batches of single row deletes.
+    *
+    * @return the number of deleted rows
+    */
+   static <T> int deleteObjects(final Connection connection, final Class<T> clazz, final List<T> objects) throws SQLException {
+      if (objects.isEmpty()) {
+         return 0;
+      }
+      final Introspected introspected = Introspector.getIntrospected(clazz);
+      final List<AttributeInfo> idFcInfos = introspected.getIdFcInfos();
+      if (idFcInfos.isEmpty()) {
+         throw new RuntimeException("No id columns provided in: " + clazz.getName());
+      }
+      final String deleteFrom = "DELETE FROM " + introspected.getDelimitedTableName() + " WHERE ";
+      return introspected.hasCompositePrimaryKey()
+         ? deleteObjectsByCompositeKey(connection, introspected, deleteFrom, idFcInfos, objects)
+         : deleteObjectsBySingleKey(connection, introspected, deleteFrom + idFcInfos.get(0).getDelimitedColumnName() + " IN (?)", objects);
+   }
+
+   private static <T> int deleteObjectsBySingleKey(final Connection connection, final Introspected introspected, final String deleteIn, final List<T> objects) throws SQLException {
+      int deleted = 0;
+      for (int from = 0; from < objects.size(); from += DELETE_CHUNK_SIZE) {
+         final int to = Math.min(from + DELETE_CHUNK_SIZE, objects.size());
+         final List<Object> ids = new ArrayList<>(to - from);
+         for (int i = from; i < to; i++) {
+            ids.add(introspected.getActualIds(objects.get(i))[0]);
+         }
+         // expanded like any IN (?) argument
+         deleted += executeUpdate(connection, deleteIn, ids);
+      }
+      return deleted;
+   }
+
+   private static <T> int deleteObjectsByCompositeKey(final Connection connection, final Introspected introspected, final String deleteFrom,
+                                                      final List<AttributeInfo> idFcInfos, final List<T> objects) throws SQLException {
+      final StringBuilder sql = new StringBuilder(deleteFrom);
+      for (final AttributeInfo idFcInfo : idFcInfos) {
+         sql.append(idFcInfo.getDelimitedColumnName()).append("=? AND ");
+      }
+      sql.setLength(sql.length() - 5);
+
+      int deleted = 0;
+      try (final PreparedStatement stmt = connection.prepareStatement(sql.toString())) {
+         final int[] parameterTypes = getParameterTypes(stmt);
+         int batched = 0;
+         for (final T object : objects) {
+            populateStatementParameters(stmt, parameterTypes, introspected.getActualIds(object));
+            stmt.addBatch();
+            if (++batched == DELETE_CHUNK_SIZE) {
+               deleted += sumUpdateCounts(stmt.executeBatch());
+               batched = 0;
+            }
+         }
+         if (batched > 0) {
+            deleted += sumUpdateCounts(stmt.executeBatch());
+         }
+      }
+      return deleted;
+   }
+
+   /** Counts rows reported as {@link Statement#SUCCESS_NO_INFO} as deleted */
+   private static int sumUpdateCounts(final int[] updateCounts) {
+      int sum = 0;
+      for (final int count : updateCounts) {
+         sum += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+      }
+      return sum;
    }
 
    static int executeUpdate(final Connection connection, final String sql, final Object... args) throws SQLException
    {
-      try (final PreparedStatement stmt = connection.prepareStatement(sql)) {
-         populateStatementParameters(stmt, args);
+      final ExpandedSql expanded = ExpandedSql.expand(connection, sql, args);
+      try (final PreparedStatement stmt = connection.prepareStatement(expanded.sql)) {
+         populateStatementParameters(stmt, expanded.args);
          return stmt.executeUpdate();
       }
    }
 
+   /**
+    * @return the update count, or -1 if the call produced a result set or no update count.
+    */
+   static int call(final Connection connection, final String callSql, final Object... args) throws SQLException
+   {
+      try (final CallableStatement stmt = connection.prepareCall(callSql)) {
+         populateCallParameters(stmt, args);
+         final int updateCount = stmt.execute() ? -1 : stmt.getUpdateCount();
+         readOutParameters(stmt, args);
+         return updateCount;
+      }
+   }
+
    // -----------------------------------------------------------------------
    //                      P R I V A T E   M E T H O D S
    // -----------------------------------------------------------------------
@@ -209,7 +575,18 @@ class OrmWriter extends OrmBase
                                                              final Introspected introspected,
                                                              final AttributeInfo[] fcInfos) throws SQLException
    {
-      final String sql = createStatementCache.computeIfAbsent(introspected, key -> {
+      return createStatementForInsert(connection, introspected, fcInfos, 1);
+   }
+
+   /**
+    * @param rows the number of rows inserted by the statement, each with its own VALUES list
+    */
+   private static PreparedStatement createStatementForInsert(final Connection connection,
+                                                             final Introspected introspected,
+                                                             final AttributeInfo[] fcInfos,
+                                                             final int rows) throws SQLException
+   {
+      String sql = createStatementCache.computeIfAbsent(introspected, key -> {
          final String tableName = introspected.getDelimitedTableName();
          final StringBuilder sqlSB = new StringBuilder("INSERT INTO ").append(tableName).append('(');
          final StringBuilder sqlValues = new StringBuilder(") VALUES (");
@@ -225,6 +602,15 @@ class OrmWriter extends OrmBase
          return sqlSB.toString();
       });
 
+      if (rows > 1) {
+         final String values = sql.substring(sql.lastIndexOf(" VALUES (") + 8);
+         final StringBuilder sqlSB = new StringBuilder(sql.length() + (values.length() + 1) * (rows - 1)).append(sql);
+         for (int i = 1; i < rows; i++) {
+            sqlSB.append(',').append(values);
+         }
+         sql = sqlSB.toString();
+      }
+
       if (introspected.hasGeneratedId()) {
          return connection.prepareStatement(sql, introspected.getIdColumnNames());
       }
@@ -283,6 +669,75 @@ class OrmWriter extends OrmBase
       return sqlSB.toString();
    }
 
+   /**
+    * @return the insertable columns, preceded by the generated id column if there is one.
+    */
+   static AttributeInfo[] getUpsertFcInfos(final Introspected introspected)
+   {
+      final AttributeInfo[] insertableFcInfos = introspected.getInsertableFcInfos();
+      if (!introspected.hasGeneratedId()) {
+         return insertableFcInfos;
+      }
+      final AttributeInfo[] fcInfos = new AttributeInfo[insertableFcInfos.length + 1];
+      fcInfos[0] = introspected.getGeneratedIdFcInfo();
+      System.arraycopy(insertableFcInfos, 0, fcInfos, 1, insertableFcInfos.length);
+      return fcInfos;
+   }
+
+   /**
+    * @return the upsert statement for the syntax, a plain INSERT of all upsert columns for {@link UpsertSyntax#NONE}.
+    */
+   static String createSqlForUpsert(final Introspected introspected, final AttributeInfo[] fcInfos, final UpsertSyntax syntax)
+   {
+      final String[] sqls = upsertStatementCache.computeIfAbsent(introspected, key -> new String[UpsertSyntax.values().length]);
+      String sql = sqls[syntax.ordinal()];
+      if (sql != null) {
+         return sql;
+      }
+
+      final StringBuilder columns = new StringBuilder();
+      final StringBuilder values = new StringBuilder();
+      for (final AttributeInfo fcInfo : fcInfos) {
+         columns.append(fcInfo.getDelimitedColumnName()).append(',');
+         values.append("?,");
+      }
+      columns.setLength(columns.length() - 1);
+      values.setLength(values.length() - 1);
+      final String tableName = introspected.getDelimitedTableName();
+      final String idColumns = String.join(",", introspected.getIdColumnNames());
+
+      switch (syntax) {
+         case MERGE_KEY:
+            sql = "MERGE INTO " + tableName + " (" + columns + ") KEY (" + idColumns + ") VALUES (" + values + ")";
+            break;
+         case ON_CONFLICT:
+            final StringBuilder sqlSB = new StringBuilder("INSERT INTO ").append(tableName).append(" (").append(columns)
+               .append(") VALUES (").append(values).append(") ON CONFLICT (").append(idColumns).append(") DO ");
+            final Set<String> setColumns = new LinkedHashSet<>();
+            for (final AttributeInfo fcInfo : introspected.getUpdatableFcInfos()) {
+               if (!fcInfo.isIdField) {
+                  setColumns.add(fcInfo.getDelimitedColumnName());
+               }
+            }
+            if (setColumns.isEmpty()) {
+               sqlSB.append("NOTHING");
+            }
+            else {
+               sqlSB.append("UPDATE SET ");
+               for (final String column : setColumns) {
+                  sqlSB.append(column).append("=EXCLUDED.").append(column).append(',');
+               }
+               sqlSB.setLength(sqlSB.length() - 1);
+            }
+            sql = sqlSB.toString();
+            break;
+         default:
+            sql = "INSERT INTO " + tableName + " (" + columns + ") VALUES (" + values + ")";
+      }
+      sqls[syntax.ordinal()] = sql;
+      return sql;
+   }
+
    /** You should close stmt by yourself */
    private static <T> void setParamsExecute(final T target,
                                             final Introspected introspected,
@@ -292,15 +747,8 @@ class OrmWriter extends OrmBase
                                             final Set<String> excludedColumns) throws SQLException
    {
       final int[] parameterTypes = getParameterTypes(stmt);
-      int parameterIndex = setStatementParameters(target, introspected, fcInfos, /*hasSelfJoinColumn*/ stmt, parameterTypes, excludedColumns);
-
-      // If there is still a parameter left to be set, it's the ID used for an update
-      if (parameterIndex <= parameterTypes.length) {
-         for (final Object id : introspected.getActualIds(target)) {
-            stmt.setObject(parameterIndex, id, parameterTypes[parameterIndex - 1]);
-            ++parameterIndex;
-         }
-      }
+      final int parameterIndex = setStatementParameters(target, introspected, fcInfos, /*hasSelfJoinColumn*/ stmt, parameterTypes, excludedColumns);
+      setIdParameters(target, introspected, stmt, parameterTypes, parameterIndex);
 
       stmt.executeUpdate();
       fillGeneratedId(target, introspected, stmt, checkExistingId);
@@ -313,7 +761,20 @@ class OrmWriter extends OrmBase
                                                  final PreparedStatement stmt,
                                                  final int[] parameterTypes,
                                                  final Set<String> excludedColumns) throws SQLException {
-      int parameterIndex = 1;
+      return setStatementParameters(item, introspected, fcInfos, stmt, parameterTypes, excludedColumns, 1);
+   }
+
+   /**
+    * @param parameterIndex the index of the first parameter to set
+    * @return the index after the last parameter set
+    */
+   private static <T> int setStatementParameters(final T item,
+                                                 final Introspected introspected,
+                                                 final AttributeInfo[] fcInfos,
+                                                 final PreparedStatement stmt,
+                                                 final int[] parameterTypes,
+                                                 final Set<String> excludedColumns,
+                                                 int parameterIndex) throws SQLException {
       for (final AttributeInfo fcInfo : fcInfos) {
          if (excludedColumns == null || !isIgnoredColumn(excludedColumns, fcInfo.getColumnName())) {
             final int parameterType = parameterTypes[parameterIndex - 1];
@@ -340,6 +801,29 @@ class OrmWriter extends OrmBase
       return parameterIndex;
    }
 
+   /** If there is still a parameter left to be set, it's the ID used for an update */
+   private static <T> void setIdParameters(final T target,
+                                           final Introspected introspected,
+                                           final PreparedStatement stmt,
+                                           final int[] parameterTypes,
+                                           int parameterIndex) throws SQLException {
+      if (parameterIndex <= parameterTypes.length) {
+         for (final Object id : introspected.getActualIds(target)) {
+            stmt.setObject(parameterIndex, id, parameterTypes[parameterIndex - 1]);
+            ++parameterIndex;
+         }
+      }
+   }
+
+   /** Copies the counts of an executed batch to position {@code count}, growing the array if necessary */
+   private static int[] appendCounts(int[] updateCounts, final int count, final int[] batchCounts) {
+      if (count + batchCounts.length > updateCounts.length) {
+         updateCounts = Arrays.copyOf(updateCounts, Math.max(updateCounts.length * 2, count + batchCounts.length));
+      }
+      System.arraycopy(batchCounts, 0, updateCounts, count, batchCounts.length);
+      return updateCounts;
+   }
+
    /** Sets auto-generated ID if not set yet */
    private static <T> void fillGeneratedId(final T target,
                                            final Introspected introspected,
@@ -350,12 +834,8 @@ class OrmWriter extends OrmBase
       }
 
       final AttributeInfo fcInfo = introspected.getGeneratedIdFcInfo();
-      if (checkExistingId) {
-         final Object idExisting = introspected.get(target, fcInfo);
-         if (idExisting != null && (!(idExisting instanceof Integer) || (Integer) idExisting > 0)) {
-            // a bit tied to implementation but let's assume that integer id <= 0 means that it was not generated yet
-            return;
-         }
+      if (checkExistingId && hasGeneratedIdValue(target, introspected)) {
+         return;
       }
       try (final ResultSet generatedKeys = stmt.getGeneratedKeys()) {
          if (generatedKeys.next()) {
@@ -364,13 +844,35 @@ class OrmWriter extends OrmBase
       }
    }
 
-   private static int[] getParameterTypes(final PreparedStatement stmt) throws SQLException
-   {
-      final ParameterMetaData metaData = stmt.getParameterMetaData();
-      final int[] parameterTypes = new int[metaData.getParameterCount()];
-      for (int parameterIndex = 1; parameterIndex <= metaData.getParameterCount(); parameterIndex++) {
-         parameterTypes[parameterIndex - 1] = metaData.getParameterType(parameterIndex);
+   /** Sets the auto-generated IDs of a batch, in batch order */
+   private static <T> void fillGeneratedIds(final List<T> targets,
+                                            final Introspected introspected,
+                                            final PreparedStatement stmt) throws SQLException {
+      final List<Object> ids = new ArrayList<>(targets.size());
+      try (final ResultSet generatedKeys = stmt.getGeneratedKeys()) {
+         while (generatedKeys.next()) {
+            ids.add(generatedKeys.getObject(1));
+         }
+      }
+      if (ids.size() != targets.size()) {
+         logger.warn("Got {} generated keys for a batch of {} {}, ids are not set", ids.size(), targets.size(), introspected.getTableName());
+         return;
+      }
+      final AttributeInfo fcInfo = introspected.getGeneratedIdFcInfo();
+      for (int i = 0; i < ids.size(); i++) {
+         introspected.set(targets.get(i), fcInfo, ids.get(i));
+      }
+   }
+
+   private static <T> boolean hasGeneratedIdValue(final T target, final Introspected introspected) {
+      final Object idExisting = introspected.get(target, introspected.getGeneratedIdFcInfo());
+      // a bit tied to implementation but let's assume that an integral id <= 0 means that it was not generated yet
+      if (idExisting instanceof Integer || idExisting instanceof Long || idExisting instanceof Short || idExisting instanceof Byte) {
+         return ((Number) idExisting).longValue() > 0;
+      }
+      if (idExisting instanceof BigInteger) {
+         return ((BigInteger) idExisting).signum() > 0;
       }
-      return parameterTypes;
+      return idExisting != null;
    }
 }
@@ -0,0 +1,74 @@
+package com.zaxxer.q2o;
+
+import java.sql.CallableStatement;
+import java.sql.SQLException;
+
+/**
+ * An OUT or INOUT parameter of a stored procedure call. Pass it in place of a value among the arguments of
+ * {@link Q2Sql#call(String, Object...)} or {@link Q2ObjList#fromProcedure(Class, String, Object...)} and read the
+ * value after the call returned.
+ * <pre>
+ * OutParameter total = OutParameter.out(Types.INTEGER);
+ * Q2Sql.call("{call close_orders(?, ?)}", customerId, total);
+ * int closed = total.getValue();
+ * </pre>
+ */
+public final class OutParameter {
+
+   private final int sqlType;
+   private final boolean isInOut;
+   private final Object inValue;
+   private Object value;
+
+   private OutParameter(final int sqlType, final boolean isInOut, final Object inValue) {
+      this.sqlType = sqlType;
+      this.isInOut = isInOut;
+      this.inValue = inValue;
+   }
+
+   /**
+    * @param sqlType the {@link java.sql.Types} constant of the parameter
+    * @return an OUT parameter
+    */
+   public static OutParameter out(final int sqlType) {
+      return new OutParameter(sqlType, false, null);
+   }
+
+   /**
+    * @param sqlType the {@link java.sql.Types} constant of the parameter
+    * @param value the value passed into the procedure
+    * @return an INOUT parameter
+    */
+   public static OutParameter inOut(final int sqlType, final Object value) {
+      return new OutParameter(sqlType, true, value);
+   }
+
+   /**
+    * @param <T> the expected type
+    * @return the value returned by the procedure, null before the call
+    */
+   @SuppressWarnings("unchecked")
+   public <T> T getValue() {
+      return (T) value;
+   }
+
+   boolean isInOut() {
+      return isInOut;
+   }
+
+   void register(final CallableStatement stmt, final int parameterIndex) throws SQLException {
+      stmt.registerOutParameter(parameterIndex, sqlType);
+      if (isInOut) {
+         stmt.setObject(parameterIndex, OrmBase.mapSqlType(inValue, sqlType), sqlType);
+      }
+   }
+
+   void read(final CallableStatement stmt, final int parameterIndex) throws SQLException {
+      value = stmt.getObject(parameterIndex);
+   }
+
+   @Override
+   public String toString() {
+      return "OutParameter{sqlType=" + sqlType + ", value=" + value + '}';
+   }
+}
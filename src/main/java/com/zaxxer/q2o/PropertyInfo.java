@@ -50,6 +50,11 @@ class PropertyInfo extends AttributeInfo {
       return readMethod.getDeclaredAnnotation(ManyToMany.class);
    }
 
+   @Override
+   protected JoinTable extractJoinTableAnnotation() {
+      return readMethod.getDeclaredAnnotation(JoinTable.class);
+   }
+
    @Override
    protected OneToMany extractOneToManyAnnotation() {
       return readMethod.getDeclaredAnnotation(OneToMany.class);
@@ -90,6 +95,11 @@ class PropertyInfo extends AttributeInfo {
       return readMethod.getDeclaredAnnotation(Convert.class);
    }
 
+   @Override
+   protected Deduplicate extractDeduplicateAnnotation() {
+      return readMethod.getDeclaredAnnotation(Deduplicate.class);
+   }
+
    @Override
    protected Column extractColumnAnnotation() {
       return readMethod.getDeclaredAnnotation(Column.class);
@@ -0,0 +1,114 @@
+package com.zaxxer.q2o;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Export the rows of an entity's table as CSV (RFC 4180, with a header line) or JSON Lines, streamed from the
+ * {@code ResultSet} straight into a channel or file. No entities are instantiated: column values pass the entity's
+ * converters and enum mappings and are encoded as UTF-8 into reused direct buffers. Columns are named after the
+ * entity's attributes.
+ * <p>
+ * Numbers and booleans are written as such, {@code byte[]} as Base64 and everything else by {@code toString()}.
+ * NULL is an empty CSV field or JSON {@code null}.
+ */
+public final class Q2Export {
+
+   private Q2Export() {
+   }
+
+   /**
+    * @param connection a SQL Connection object
+    * @param clazz the entity class
+    * @param channel the channel to write to, it is not closed
+    * @param clause the conditional part of a SQL where clause, may be null
+    * @param args the query parameters
+    * @return the number of rows written
+    * @throws SQLException if a {@link SQLException} occurs
+    * @throws IOException if writing to the channel fails
+    */
+   public static long toCsv(Connection connection, Class<?> clazz, WritableByteChannel channel, String clause, Object... args) throws SQLException, IOException
+   {
+      return ResultExporter.export(connection, clazz, ResultExporter.Format.CSV, channel, clause, args);
+   }
+
+   /**
+    * @see #toCsv(Connection, Class, WritableByteChannel, String, Object...)
+    */
+   public static long toCsv(Class<?> clazz, WritableByteChannel channel, String clause, Object... args)
+   {
+      return export(clazz, ResultExporter.Format.CSV, channel, clause, args);
+   }
+
+   /**
+    * Export into a file, replacing it if it exists.
+    *
+    * @see #toCsv(Connection, Class, WritableByteChannel, String, Object...)
+    */
+   public static long toCsv(Class<?> clazz, Path path, String clause, Object... args)
+   {
+      return export(clazz, ResultExporter.Format.CSV, path, clause, args);
+   }
+
+   /**
+    * Like {@link #toCsv(Connection, Class, WritableByteChannel, String, Object...)}, but one JSON object per line.
+    *
+    * @param connection a SQL Connection object
+    * @param clazz the entity class
+    * @param channel the channel to write to, it is not closed
+    * @param clause the conditional part of a SQL where clause, may be null
+    * @param args the query parameters
+    * @return the number of rows written
+    * @throws SQLException if a {@link SQLException} occurs
+    * @throws IOException if writing to the channel fails
+    */
+   public static long toJsonLines(Connection connection, Class<?> clazz, WritableByteChannel channel, String clause, Object... args) throws SQLException, IOException
+   {
+      return ResultExporter.export(connection, clazz, ResultExporter.Format.JSON_LINES, channel, clause, args);
+   }
+
+   /**
+    * @see #toJsonLines(Connection, Class, WritableByteChannel, String, Object...)
+    */
+   public static long toJsonLines(Class<?> clazz, WritableByteChannel channel, String clause, Object... args)
+   {
+      return export(clazz, ResultExporter.Format.JSON_LINES, channel, clause, args);
+   }
+
+   /**
+    * Export into a file, replacing it if it exists.
+    *
+    * @see #toJsonLines(Connection, Class, WritableByteChannel, String, Object...)
+    */
+   public static long toJsonLines(Class<?> clazz, Path path, String clause, Object... args)
+   {
+      return export(clazz, ResultExporter.Format.JSON_LINES, path, clause, args);
+   }
+
+   private static long export(final Class<?> clazz, final ResultExporter.Format format, final WritableByteChannel channel, final String clause, final Object... args)
+   {
+      return SqlClosure.sqlExecute(c -> {
+         try {
+            return ResultExporter.export(c, clazz, format, channel, clause, args);
+         }
+         catch (IOException e) {
+            throw new RuntimeException(e);
+         }
+      });
+   }
+
+   private static long export(final Class<?> clazz, final ResultExporter.Format format, final Path path, final String clause, final Object... args)
+   {
+      try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+         return export(clazz, format, channel, clause, args);
+      }
+      catch (IOException e) {
+         throw new RuntimeException(e);
+      }
+   }
+}
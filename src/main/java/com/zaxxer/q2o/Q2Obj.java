@@ -21,6 +21,7 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -134,7 +135,7 @@ public final class Q2Obj
 
    /**
     * Get an object from the specified ResultSet. For compatibility with Spring RowMapper ResultSet.next() must been called. <b>The ResultSet is not closed as a result of this
-    * method.</b>
+    * method.</b> To map many rows prefer a {@link Q2RowMapper}, which resolves the columns only once.
     *
     * @param resultSet a {@link ResultSet}
     * @param target the target object to set values on
@@ -181,6 +182,34 @@ public final class Q2Obj
       return OrmWriter.updateObject(connection, target);
    }
 
+   /**
+    * Insert an annotated object or update its row if it already exists, with a single statement where the database
+    * supports one: MERGE INTO ... KEY on H2, INSERT ... ON CONFLICT DO UPDATE on PostgreSQL 9.5+ and SQLite 3.24+.
+    * Other databases get an UPDATE followed by an INSERT if no row was updated. An object whose generated @Id is not
+    * set yet is always inserted.
+    * <p>
+    * On H2 the MERGE also overwrites insertable columns that are not updatable.
+    *
+    * @param connection a SQL connection
+    * @param target the annotated object to insert or update
+    * @param <T> the class template
+    * @return the same object passed in, with possibly updated @Id field due to auto-generated keys
+    * @throws SQLException if a {@link SQLException} occurs
+    */
+   public static <T> T upsert(Connection connection, T target) throws SQLException
+   {
+      OrmWriter.upsertObjects(connection, Collections.singletonList(target));
+      return target;
+   }
+
+   /**
+    * @see #upsert(Connection, Object)
+    */
+   public static <T> T upsert(T target)
+   {
+      return SqlClosure.sqlExecute(c -> Q2Obj.upsert(c, target));
+   }
+
    public static <T> T updateExcludeColumns(Connection connection, T target, String... excludedColumns) throws SQLException
    {
       HashSet<String> excludedCols = new HashSet<>(excludedColumns.length);
@@ -363,18 +392,14 @@ public final class Q2Obj
     * @return The object or object graph
     */
    public static <T> T fromSelect(Class<T> clazz, String select, Object... args) {
-      return SqlClosure.sqlExecute(connection -> {
-         PreparedStatement stmnt = connection.prepareStatement(select);
-         return Q2Obj.fromStatement(stmnt, clazz, args);
-      });
+      return SqlClosure.sqlExecute(connection -> OrmReader.objectFromSelect(connection, clazz, select, args));
    }
 
    /**
     * @see #fromSelect(Class, String, Object...)
     */
    public static <T> T fromSelect(Connection connection, Class<T> clazz, String select, Object... args) throws SQLException {
-      PreparedStatement stmnt = connection.prepareStatement(select);
-      return Q2Obj.fromStatement(stmnt, clazz, args);
+      return OrmReader.objectFromSelect(connection, clazz, select, args);
    }
 
    public static int deleteByWhereClause(Class<?> clazz, String whereClause, Object... args) {
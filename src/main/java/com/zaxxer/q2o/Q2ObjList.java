@@ -4,7 +4,14 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * @author Holger Thurow (thurow.h@gmail.com)
@@ -33,6 +40,151 @@ public class Q2ObjList {
       return OrmReader.listFromClause(connection, clazz, clause, args);
    }
 
+   /**
+    * Like {@link #fromClause(Connection, Class, String, Object...)}, but also fetches the relationships named by the
+    * specified {@link javax.persistence.NamedEntityGraph} of the class. Each attribute node of the graph costs one
+    * additional query per 500 distinct keys, however many objects are read.
+    *
+    * @param connection a SQL Connection object
+    * @param clazz the class of the objects
+    * @param graphName the name of a {@link javax.persistence.NamedEntityGraph} declared on the class
+    * @param clause the conditional part of a SQL where clause
+    * @param args the query parameters
+    * @param <T> the type of the objects
+    * @return a list of populated objects
+    * @throws SQLException if a {@link SQLException} occurs
+    */
+   public static <T> List<T> fromClauseWithGraph(Connection connection, Class<T> clazz, String graphName, String clause, Object... args) throws SQLException
+   {
+      return OrmReader.listFromClauseWithGraph(connection, clazz, graphName, clause, args);
+   }
+
+   /**
+    * @see #fromClauseWithGraph(Connection, Class, String, String, Object...)
+    */
+   public static <T> List<T> fromClauseWithGraph(Class<T> clazz, String graphName, String clause, Object... args)
+   {
+      return SqlClosure.sqlExecute(c -> OrmReader.listFromClauseWithGraph(c, clazz, graphName, clause, args));
+   }
+
+   /**
+    * Fetch the relationships named by the specified {@link javax.persistence.NamedEntityGraph} for objects already
+    * read, e.g. by {@link #fromSelect(Class, String, Object...)}.
+    *
+    * @param connection a SQL Connection object
+    * @param clazz the class of the objects
+    * @param entities the objects
+    * @param graphName the name of a {@link javax.persistence.NamedEntityGraph} declared on the class
+    * @param <T> the type of the objects
+    * @return the specified list
+    * @throws SQLException if a {@link SQLException} occurs
+    */
+   public static <T> List<T> fetchGraph(Connection connection, Class<T> clazz, List<T> entities, String graphName) throws SQLException
+   {
+      return OrmReader.fetchGraph(connection, clazz, entities, graphName);
+   }
+
+   /**
+    * @see #fetchGraph(Connection, Class, List, String)
+    */
+   public static <T> List<T> fetchGraph(Class<T> clazz, List<T> entities, String graphName)
+   {
+      return SqlClosure.sqlExecute(c -> OrmReader.fetchGraph(c, clazz, entities, graphName));
+   }
+
+   /**
+    * Fetch a single relationship, e.g. a {@link javax.persistence.ManyToMany} one, for objects already read. Like an
+    * entity graph node it costs a bounded number of queries, not one per object.
+    *
+    * @param connection a SQL Connection object
+    * @param clazz the class of the objects
+    * @param entities the objects
+    * @param attributeName the name of the relationship attribute
+    * @param <T> the type of the objects
+    * @return the specified list
+    * @throws SQLException if a {@link SQLException} occurs
+    * @see #fetchGraph(Connection, Class, List, String)
+    */
+   public static <T> List<T> fetchRelationship(Connection connection, Class<T> clazz, List<T> entities, String attributeName) throws SQLException
+   {
+      return OrmReader.fetchRelationship(connection, clazz, entities, attributeName);
+   }
+
+   /**
+    * @see #fetchRelationship(Connection, Class, List, String)
+    */
+   public static <T> List<T> fetchRelationship(Class<T> clazz, List<T> entities, String attributeName)
+   {
+      return SqlClosure.sqlExecute(c -> OrmReader.fetchRelationship(c, clazz, entities, attributeName));
+   }
+
+   /**
+    * Open a cursor over the objects matching the clause. Rows are read and mapped only when pulled from the cursor.
+    * The connection is taken from the default DataSource and released when the cursor is exhausted or closed. Within
+    * an active q2o transaction the cursor reads on the transaction's connection, so it sees the transaction's
+    * uncommitted rows; closing the cursor neither commits nor ends the transaction. Outside a transaction none is
+    * started, but auto-commit is turned off while the cursor is open, see {@link ResultCursor}.
+    *
+    * @param clazz the class of the objects
+    * @param clause the conditional part of a SQL where clause
+    * @param args the query parameters
+    * @param <T> the type of the objects
+    * @return an open cursor, close it when done
+    * @see ResultCursor
+    */
+   public static <T> ResultCursor<T> cursor(Class<T> clazz, String clause, Object... args)
+   {
+      try {
+         return new ResultCursor<>(SqlClosure.getConnection(), true, clazz, clause, args);
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+   }
+
+   /**
+    * Like {@link #cursor(Class, String, Object...)}, but on a connection owned by the caller, which is left open. Its
+    * auto-commit mode is not changed, turn it off to let drivers like PostgreSQL's read through a database cursor.
+    *
+    * @param connection a SQL Connection object
+    * @param clazz the class of the objects
+    * @param clause the conditional part of a SQL where clause
+    * @param args the query parameters
+    * @param <T> the type of the objects
+    * @return an open cursor, close it when done
+    * @throws SQLException if a {@link SQLException} occurs
+    */
+   public static <T> ResultCursor<T> cursor(Connection connection, Class<T> clazz, String clause, Object... args) throws SQLException
+   {
+      return new ResultCursor<>(connection, false, clazz, clause, args);
+   }
+
+   /**
+    * Like {@link #fromClause(Connection, Class, String, Object...)}, but limited by the specified guard instead of the
+    * global one set with {@link q2o#setResultGuard(ResultGuard)}.
+    *
+    * @param connection a SQL Connection object
+    * @param clazz the class of the object to load
+    * @param guard the limits for this read
+    * @param clause the conditional part of a SQL where clause
+    * @param args the query parameters used to find the list of objects
+    * @param <T> the type of the object to load
+    * @return a list of populated objects, see {@link ResultGuard#isTruncated(List)}
+    * @throws SQLException if a {@link SQLException} occurs
+    */
+   public static <T> List<T> fromClauseGuarded(Connection connection, Class<T> clazz, ResultGuard guard, String clause, Object... args) throws SQLException
+   {
+      return OrmReader.listFromClause(connection, clazz, guard, clause, args);
+   }
+
+   /**
+    * @see #fromClauseGuarded(Connection, Class, ResultGuard, String, Object...)
+    */
+   public static <T> List<T> fromClauseGuarded(Class<T> clazz, ResultGuard guard, String clause, Object... args)
+   {
+      return SqlClosure.sqlExecute(c -> OrmReader.listFromClause(c, clazz, guard, clause, args));
+   }
+
    /**
     * Execute a prepared statement (query) with the supplied args set as query parameters (if specified), and
     * return a list of objects as a result. <b>The PreparedStatement will be closed.</b>
@@ -81,16 +233,313 @@ public class Q2ObjList {
       return SqlClosure.sqlExecute(c -> OrmReader.listFromClause(c, clazz, clause, args));
    }
 
+   /**
+    * Execute a {@link javax.persistence.NamedNativeQuery} declared on the specified class. The query is read and
+    * validated once when the class is introspected, its parameter types are cached after the first execution.
+    * <p>
+    * If the query declares a {@code resultClass} the objects are instances of that class, otherwise of
+    * {@code clazz}.
+    *
+    * @param connection a SQL Connection object
+    * @param clazz the class declaring the query
+    * @param name the name of the query
+    * @param args the query parameters
+    * @param <T> the type of the objects
+    * @return a list of populated objects, or an empty list
+    * @throws SQLException if a {@link SQLException} occurs
+    */
+   public static <T> List<T> named(Connection connection, Class<T> clazz, String name, Object... args) throws SQLException
+   {
+      return OrmReader.listFromNamedQuery(connection, clazz, name, args);
+   }
+
+   /**
+    * @see #named(Connection, Class, String, Object...)
+    */
+   public static <T> List<T> named(Class<T> clazz, String name, Object... args)
+   {
+      return SqlClosure.sqlExecute(c -> OrmReader.listFromNamedQuery(c, clazz, name, args));
+   }
+
+   /**
+    * Call a stored procedure and map its first result set. Pass an {@link OutParameter} for every OUT or INOUT
+    * parameter; their values are available when this method returns. IN parameters are bound like in
+    * {@link #fromClause(Connection, Class, String, Object...)}.
+    *
+    * @param connection a SQL Connection object
+    * @param clazz the class of the objects to load
+    * @param callSql the call in JDBC escape syntax, e.g. {@code {call find_orders(?, ?)}}
+    * @param args the IN values and {@link OutParameter}s in parameter order
+    * @param <T> the type of the objects
+    * @return a list of populated objects, or an empty list if the call returned no result set
+    * @throws SQLException if a {@link SQLException} occurs
+    * @see Q2Sql#call(Connection, String, Object...)
+    */
+   public static <T> List<T> fromProcedure(Connection connection, Class<T> clazz, String callSql, Object... args) throws SQLException
+   {
+      return OrmReader.listFromProcedure(connection, clazz, callSql, args);
+   }
+
+   /**
+    * @see #fromProcedure(Connection, Class, String, Object...)
+    */
+   public static <T> List<T> fromProcedure(Class<T> clazz, String callSql, Object... args)
+   {
+      return SqlClosure.sqlExecute(c -> OrmReader.listFromProcedure(c, clazz, callSql, args));
+   }
+
+   /**
+    * Call the procedure of a {@link javax.persistence.NamedStoredProcedureQuery} declared on the specified class. The
+    * arguments must match the declared parameters: a value for each IN parameter, an {@link OutParameter} created by
+    * {@link OutParameter#out(int)} for each OUT and by {@link OutParameter#inOut(int, Object)} for each INOUT
+    * parameter.
+    *
+    * @param connection a SQL Connection object
+    * @param clazz the class declaring the query
+    * @param name the name of the query
+    * @param args the arguments in parameter order
+    * @param <T> the type of the objects
+    * @return a list of populated objects, or an empty list if the call returned no result set
+    * @throws SQLException if a {@link SQLException} occurs
+    * @see #fromProcedure(Connection, Class, String, Object...)
+    */
+   public static <T> List<T> namedProcedure(Connection connection, Class<T> clazz, String name, Object... args) throws SQLException
+   {
+      return OrmReader.listFromNamedProcedure(connection, clazz, name, args);
+   }
+
+   /**
+    * @see #namedProcedure(Connection, Class, String, Object...)
+    */
+   public static <T> List<T> namedProcedure(Class<T> clazz, String name, Object... args)
+   {
+      return SqlClosure.sqlExecute(c -> OrmReader.listFromNamedProcedure(c, clazz, name, args));
+   }
+
+   /**
+    * Execute a {@link javax.persistence.NamedNativeQuery} that declares a {@code resultSetMapping} and map the rows
+    * through the constructor of its {@link javax.persistence.ConstructorResult}.
+    *
+    * @param connection a SQL Connection object
+    * @param declaringClass the class declaring the query and the {@link javax.persistence.SqlResultSetMapping}
+    * @param name the name of the query
+    * @param args the query parameters
+    * @param <R> the target class of the constructor result
+    * @return a list of the constructed objects, or an empty list
+    * @throws SQLException if a {@link SQLException} occurs
+    * @see #fromResultSetMapping(Connection, Class, String, String, Object...)
+    */
+   public static <R> List<R> namedProjection(Connection connection, Class<?> declaringClass, String name, Object... args) throws SQLException
+   {
+      return OrmReader.listFromNamedProjection(connection, declaringClass, name, args);
+   }
+
+   /**
+    * @see #namedProjection(Connection, Class, String, Object...)
+    */
+   public static <R> List<R> namedProjection(Class<?> declaringClass, String name, Object... args)
+   {
+      return SqlClosure.sqlExecute(c -> OrmReader.<R>listFromNamedProjection(c, declaringClass, name, args));
+   }
+
+   /**
+    * Execute a native query and map each row into a small DTO through the {@link javax.persistence.ConstructorResult}
+    * of a {@link javax.persistence.SqlResultSetMapping} declared on {@code declaringClass}. The columns are matched by
+    * label, case insensitive, and converted to the constructor's parameter types. {@code null} becomes the default
+    * value for primitive parameters. Only mappings with a single {@code ConstructorResult} are supported.
+    *
+    * @param connection a SQL Connection object
+    * @param declaringClass the class declaring the mapping
+    * @param mappingName the name of the mapping
+    * @param sql the SQL to execute
+    * @param args the query parameters
+    * @param <R> the target class of the constructor result
+    * @return a list of the constructed objects, or an empty list
+    * @throws SQLException if a {@link SQLException} occurs
+    */
+   public static <R> List<R> fromResultSetMapping(Connection connection, Class<?> declaringClass, String mappingName, String sql, Object... args) throws SQLException
+   {
+      return OrmReader.listFromResultSetMapping(connection, declaringClass, mappingName, sql, args);
+   }
+
+   /**
+    * @see #fromResultSetMapping(Connection, Class, String, String, Object...)
+    */
+   public static <R> List<R> fromResultSetMapping(Class<?> declaringClass, String mappingName, String sql, Object... args)
+   {
+      return SqlClosure.sqlExecute(c -> OrmReader.<R>listFromResultSetMapping(c, declaringClass, mappingName, sql, args));
+   }
+
+   /**
+    * Load objects into a map keyed by their id. The map is filled while the rows are mapped, so there is no
+    * intermediate list and no second pass over the objects. The map iterates in row order. With a composite primary
+    * key the key is a {@link List} of the id values in order of declaration.
+    *
+    * @param connection a SQL Connection object
+    * @param clazz the class of the objects to load
+    * @param clause the conditional part of a SQL where clause
+    * @param args the query parameters
+    * @param <K> the type of the id
+    * @param <T> the type of the objects
+    * @return the objects by id, or an empty map
+    * @throws SQLException if a {@link SQLException} occurs
+    */
+   public static <K, T> Map<K, T> mapById(Connection connection, Class<T> clazz, String clause, Object... args) throws SQLException
+   {
+      return OrmReader.mapByIdFromClause(connection, clazz, clause, args);
+   }
+
+   /**
+    * @see #mapById(Connection, Class, String, Object...)
+    */
+   public static <K, T> Map<K, T> mapById(Class<T> clazz, String clause, Object... args)
+   {
+      return SqlClosure.sqlExecute(c -> OrmReader.mapByIdFromClause(c, clazz, clause, args));
+   }
+
+   /**
+    * Same as {@link #mapById(Connection, Class, String, Object...)} with the map presized for the expected number of
+    * objects, so it is not rehashed while it grows.
+    *
+    * @param expectedSize the expected number of objects, 0 if unknown
+    */
+   public static <K, T> Map<K, T> mapById(Connection connection, Class<T> clazz, int expectedSize, String clause, Object... args) throws SQLException
+   {
+      return OrmReader.mapByIdFromClause(connection, clazz, expectedSize, clause, args);
+   }
+
+   /**
+    * @see #mapById(Connection, Class, int, String, Object...)
+    */
+   public static <K, T> Map<K, T> mapById(Class<T> clazz, int expectedSize, String clause, Object... args)
+   {
+      return SqlClosure.sqlExecute(c -> OrmReader.mapByIdFromClause(c, clazz, expectedSize, clause, args));
+   }
+
+   /**
+    * Load objects grouped by the value of one of their attributes. The groups are built while the rows are mapped, so
+    * there is no intermediate list and no second pass over the objects. Groups and the objects within a group are in
+    * row order.
+    *
+    * @param connection a SQL Connection object
+    * @param clazz the class of the objects to load
+    * @param attribute the name of the attribute (field or property, not column) to group by
+    * @param clause the conditional part of a SQL where clause
+    * @param args the query parameters
+    * @param <K> the type of the attribute
+    * @param <T> the type of the objects
+    * @return the objects by attribute value, or an empty map
+    * @throws SQLException if a {@link SQLException} occurs
+    */
+   public static <K, T> Map<K, List<T>> groupBy(Connection connection, Class<T> clazz, String attribute, String clause, Object... args) throws SQLException
+   {
+      return OrmReader.groupByFromClause(connection, clazz, attribute, clause, args);
+   }
+
+   /**
+    * @see #groupBy(Connection, Class, String, String, Object...)
+    */
+   public static <K, T> Map<K, List<T>> groupBy(Class<T> clazz, String attribute, String clause, Object... args)
+   {
+      return SqlClosure.sqlExecute(c -> OrmReader.groupByFromClause(c, clazz, attribute, clause, args));
+   }
+
+   /**
+    * Same as {@link #groupBy(Connection, Class, String, String, Object...)} with the map presized for the expected
+    * number of groups, so it is not rehashed while it grows.
+    *
+    * @param expectedGroups the expected number of distinct attribute values, 0 if unknown
+    */
+   public static <K, T> Map<K, List<T>> groupBy(Connection connection, Class<T> clazz, String attribute, int expectedGroups, String clause, Object... args) throws SQLException
+   {
+      return OrmReader.groupByFromClause(connection, clazz, attribute, expectedGroups, clause, args);
+   }
+
+   /**
+    * @see #groupBy(Connection, Class, String, int, String, Object...)
+    */
+   public static <K, T> Map<K, List<T>> groupBy(Class<T> clazz, String attribute, int expectedGroups, String clause, Object... args)
+   {
+      return SqlClosure.sqlExecute(c -> OrmReader.groupByFromClause(c, clazz, attribute, expectedGroups, clause, args));
+   }
+
+   /**
+    * Like {@link #fromClause(Class, String, Object...)}, but releases the connection as early as possible: the rows
+    * are drained into plain value arrays, statement and connection are given back and only then the rows are mapped to
+    * objects. Use it to keep connection hold times short when mapping is expensive (converters, many columns) and the
+    * connection pool is the bottleneck. Costs one additional {@code Object[]} per row until mapping is done. Clobs are
+    * read into Strings while draining. Within a running transaction the connection is held by the transaction anyway.
+    *
+    * @param clazz The type of the desired objects.
+    * @param clause The from or where clause.
+    * @param args The arguments needed for the clause.
+    * @param <T> The type of the objects.
+    * @return The list of objects.
+    */
+   public static <T> List<T> fromClauseBuffered(Class<T> clazz, String clause, Object... args)
+   {
+      final OrmReader.RowBuffer rowBuffer = SqlClosure.sqlExecute(c -> OrmReader.rowBufferFromClause(c, clazz, clause, args));
+      return OrmReader.rowBufferToList(rowBuffer, clazz);
+   }
+
+   /**
+    * Like {@link #fromClauseBuffered(Class, String, Object...)}, but only rows up to an estimated heap size of
+    * {@code heapBudget} bytes are kept on the heap. All further rows are written to a memory mapped temporary file
+    * and mapped to objects only when accessed. Lets occasional huge reads run without risking an
+    * {@code OutOfMemoryError}. Every spilled row becomes one object, so use it for entities read from a single table.
+    * <p>
+    * Close the returned list to delete the temporary file.
+    *
+    * @param clazz The type of the desired objects.
+    * @param heapBudget The estimated bytes of raw row data kept on the heap before spilling.
+    * @param clause The from or where clause.
+    * @param args The arguments needed for the clause.
+    * @param <T> The type of the objects.
+    * @return The list of objects.
+    */
+   public static <T> SpillingList<T> fromClauseSpilling(Class<T> clazz, long heapBudget, String clause, Object... args)
+   {
+      final OrmReader.RowBuffer rowBuffer = SqlClosure.sqlExecute(c -> OrmReader.rowBufferFromClause(c, clazz, clause, heapBudget, args));
+      return new SpillingList<>(clazz, rowBuffer, rowBuffer.spillFile);
+   }
+
+   /**
+    * @see #fromClauseBuffered(Class, String, Object...)
+    * @see #fromSelect(Class, String, Object...)
+    */
+   public static <T> List<T> fromSelectBuffered(Class<T> clazz, String select, Object... args)
+   {
+      final OrmReader.RowBuffer rowBuffer = SqlClosure.sqlExecute(c -> OrmReader.rowBufferFromSelect(c, select, args));
+      return OrmReader.rowBufferToList(rowBuffer, clazz);
+   }
+
+   /**
+    * Reads all objects matching the clause in parallel. MIN and MAX of the entity's single numeric @Id column are
+    * determined first, the key space in between is split into up to {@code parallelism} ranges and each range is read
+    * on its own connection from the default DataSource. Objects are handed to the consumer as soon as their row is
+    * mapped, so the consumer is called concurrently from several threads and must be thread-safe. The method returns
+    * when all ranges have been read.
+    *
+    * @param clazz The type of the objects. Must have exactly one integral @Id field with values within the range of
+    *              long.
+    * @param clause A pure condition without "WHERE", it is combined with the range of every read. ORDER BY, GROUP BY,
+    *               LIMIT and the like are rejected with an {@link IllegalArgumentException}. Can be null.
+    * @param parallelism The maximum number of ranges read concurrently.
+    * @param consumer Receives every object.
+    * @param args The arguments needed for the clause.
+    * @param <T> The type of the objects.
+    */
+   public static <T> void parallelScan(Class<T> clazz, String clause, int parallelism, Consumer<? super T> consumer, Object... args)
+   {
+      OrmReader.parallelScan(clazz, clause, parallelism, consumer, args);
+   }
+
    public static <T> List<T> fromSelect(Class<T> clazz, String select, Object... args) {
-      return SqlClosure.sqlExecute(connection -> {
-         PreparedStatement stmnt = connection.prepareStatement(select);
-         return fromStatement(stmnt, clazz, args);
-      });
+      return SqlClosure.sqlExecute(connection -> OrmReader.listFromSelect(connection, clazz, select, args));
    }
 
    public static <T> List<T> fromSelect(Connection connection, Class<T> clazz, String select, Object... args) throws SQLException {
-      PreparedStatement stmnt = connection.prepareStatement(select);
-      return fromStatement(stmnt, clazz, args);
+      return OrmReader.listFromSelect(connection, clazz, select, args);
    }
 
    public static <T> void insertBatched(Iterable<T> iterable) {
@@ -121,7 +570,12 @@ public class Q2ObjList {
    }
 
    /**
-    * Insert a collection of objects using JDBC batching.
+    * Insert a collection of objects using JDBC batching. The batch is executed every
+    * {@code com.zaxxer.q2o.insertBatchSize} objects (system property, default 1000). Generated @Id values are set on
+    * the objects. Only the drivers of H2, PostgreSQL, MySQL and MariaDB return the keys of all rows of a batch, with
+    * other drivers (e.g. SQLite's) objects with a generated @Id are inserted row by row through the same statement.
+    * Setting the system property {@code com.zaxxer.q2o.batchWithoutGeneratedKeys} to true keeps batching there
+    * instead and leaves the ids unset, with a logged warning.
     *
     * @param connection a SQL connection
     * @param iterable a list (or other {@link Iterable} collection) of annotated objects to insert
@@ -133,6 +587,182 @@ public class Q2ObjList {
       OrmWriter.insertListBatched(connection, iterable);
    }
 
+   /**
+    * Same as {@link #insertBatched(Connection, Iterable)}, the iterator is consumed chunk by chunk as the batches are
+    * executed.
+    */
+   public static <T> void insertBatched(Connection connection, Iterator<T> iterator) throws SQLException
+   {
+      OrmWriter.insertBatched(connection, iterator, false);
+   }
+
+   /**
+    * @see #insertBatched(Connection, Iterator)
+    */
+   public static <T> void insertBatched(Iterator<T> iterator) {
+      SqlClosure.sqlExecute(connection -> {
+         OrmWriter.insertBatched(connection, iterator, false);
+         return null;
+      });
+   }
+
+   /**
+    * Same as {@link #insertBatched(Connection, Iterable)}, the stream is consumed chunk by chunk as the batches are
+    * executed. The stream is not closed.
+    */
+   public static <T> void insertBatched(Connection connection, Stream<T> stream) throws SQLException
+   {
+      OrmWriter.insertBatched(connection, stream.iterator(), false);
+   }
+
+   /**
+    * @see #insertBatched(Connection, Stream)
+    */
+   public static <T> void insertBatched(Stream<T> stream) {
+      SqlClosure.sqlExecute(connection -> {
+         OrmWriter.insertBatched(connection, stream.iterator(), false);
+         return null;
+      });
+   }
+
+   /**
+    * Insert a collection of objects with multi-row INSERT ... VALUES (...),(...) statements, for drivers executing
+    * JDBC batches row by row. A statement inserts up to {@code com.zaxxer.q2o.insertBatchSize} objects and binds at
+    * most 999 parameters. Only the drivers of PostgreSQL, MySQL and MariaDB return the generated keys of all rows,
+    * with other drivers objects with a generated @Id are inserted like by
+    * {@link #insertBatched(Connection, Iterable)} instead, so their ids are set the same way.
+    *
+    * @param connection a SQL connection
+    * @param iterable a list (or other {@link Iterable} collection) of annotated objects to insert
+    * @param <T> the class template
+    * @throws SQLException if a {@link SQLException} occurs
+    */
+   public static <T> void insertMultiRow(Connection connection, Iterable<T> iterable) throws SQLException
+   {
+      OrmWriter.insertBatched(connection, iterable.iterator(), true);
+   }
+
+   /**
+    * @see #insertMultiRow(Connection, Iterable)
+    */
+   public static <T> void insertMultiRow(Iterable<T> iterable) {
+      SqlClosure.sqlExecute(connection -> {
+         OrmWriter.insertBatched(connection, iterable.iterator(), true);
+         return null;
+      });
+   }
+
+   /**
+    * Same as {@link #insertMultiRow(Connection, Iterable)}, the stream is consumed statement by statement. The
+    * stream is not closed.
+    */
+   public static <T> void insertMultiRow(Connection connection, Stream<T> stream) throws SQLException
+   {
+      OrmWriter.insertBatched(connection, stream.iterator(), true);
+   }
+
+   /**
+    * @see #insertMultiRow(Connection, Stream)
+    */
+   public static <T> void insertMultiRow(Stream<T> stream) {
+      SqlClosure.sqlExecute(connection -> {
+         OrmWriter.insertBatched(connection, stream.iterator(), true);
+         return null;
+      });
+   }
+
+   /**
+    * Update a collection of objects using JDBC batching. The UPDATE statement is prepared once and flushed with
+    * executeBatch() every {@code com.zaxxer.q2o.updateBatchSize} objects (system property, default 1000).
+    *
+    * @param connection a SQL connection
+    * @param iterable a list (or other {@link Iterable} collection) of annotated objects of the same class to update
+    * @param <T> the class template
+    * @return the update count of every object, in iteration order. Drivers may report
+    *         {@link java.sql.Statement#SUCCESS_NO_INFO} instead of a count.
+    * @throws SQLException if a {@link SQLException} occurs
+    */
+   public static <T> int[] updateBatched(Connection connection, Iterable<T> iterable) throws SQLException
+   {
+      return OrmWriter.updateListBatched(connection, iterable, null, OrmWriter.UPDATE_BATCH_SIZE);
+   }
+
+   /**
+    * @see #updateBatched(Connection, Iterable)
+    */
+   public static <T> int[] updateBatched(Iterable<T> iterable) {
+      return SqlClosure.sqlExecute(connection -> updateBatched(connection, iterable));
+   }
+
+   /**
+    * Same as {@link #updateBatched(Connection, Iterable)} but without updating the named columns.
+    *
+    * @param excludedColumns case insensitive
+    */
+   public static <T> int[] updateBatchedExcludeColumns(Connection connection, Iterable<T> iterable, String... excludedColumns) throws SQLException
+   {
+      return OrmWriter.updateListBatched(connection, iterable, new HashSet<>(Arrays.asList(excludedColumns)), OrmWriter.UPDATE_BATCH_SIZE);
+   }
+
+   /**
+    * @see #updateBatchedExcludeColumns(Connection, Iterable, String...)
+    */
+   public static <T> int[] updateBatchedExcludeColumns(Iterable<T> iterable, String... excludedColumns) {
+      return SqlClosure.sqlExecute(connection -> updateBatchedExcludeColumns(connection, iterable, excludedColumns));
+   }
+
+   /**
+    * Same as {@link #updateBatched(Connection, Iterable)} but only updating the named columns.
+    *
+    * @param includedColumns case insensitive
+    */
+   public static <T> int[] updateBatchedIncludeColumns(Connection connection, Iterable<T> iterable, String... includedColumns) throws SQLException
+   {
+      final Iterator<T> iterator = iterable.iterator();
+      if (!iterator.hasNext()) {
+         return new int[0];
+      }
+      final Set<String> excludedCols = new HashSet<>();
+      for (final String column : Introspector.getIntrospected(iterator.next().getClass()).getUpdatableColumns()) {
+         if (Arrays.stream(includedColumns).noneMatch(column::equalsIgnoreCase)) {
+            excludedCols.add(column);
+         }
+      }
+      return OrmWriter.updateListBatched(connection, iterable, excludedCols, OrmWriter.UPDATE_BATCH_SIZE);
+   }
+
+   /**
+    * @see #updateBatchedIncludeColumns(Connection, Iterable, String...)
+    */
+   public static <T> int[] updateBatchedIncludeColumns(Iterable<T> iterable, String... includedColumns) {
+      return SqlClosure.sqlExecute(connection -> updateBatchedIncludeColumns(connection, iterable, includedColumns));
+   }
+
+   /**
+    * Insert a collection of objects or update their rows if they already exist, see
+    * {@link Q2Obj#upsert(Connection, Object)}. Where the database has a single upsert statement it is executed with
+    * JDBC batching, every {@code com.zaxxer.q2o.updateBatchSize} objects.
+    *
+    * @param connection a SQL connection
+    * @param iterable a list (or other {@link Iterable} collection) of annotated objects of the same class
+    * @param <T> the class template
+    * @throws SQLException if a {@link SQLException} occurs
+    */
+   public static <T> void upsertBatched(Connection connection, Iterable<T> iterable) throws SQLException
+   {
+      OrmWriter.upsertObjects(connection, iterable);
+   }
+
+   /**
+    * @see #upsertBatched(Connection, Iterable)
+    */
+   public static <T> void upsertBatched(Iterable<T> iterable) {
+      SqlClosure.sqlExecute(connection -> {
+         OrmWriter.upsertObjects(connection, iterable);
+         return null;
+      });
+   }
+
    public static int deleteByWhereClause(Class<?> clazz, String whereClause, Object... args) {
       return SqlClosure.sqlExecute(connection -> {
          return OrmWriter.deleteByWhereClause(connection, clazz, whereClause, args);
@@ -148,7 +778,8 @@ public class Q2ObjList {
    }
 
    /**
-    * Deletes all objects by its id(s) in a single bulk operation.
+    * Deletes all objects by its id(s) with bound parameters, in chunks of {@code com.zaxxer.q2o.deleteChunkSize} ids
+    * (system property, default 512).
     */
    public static <T> int delete(Connection connection, Class<T> clazz, List<T> objects) throws SQLException {
       return OrmWriter.deleteObjects(connection, clazz, objects);
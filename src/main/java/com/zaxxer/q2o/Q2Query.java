@@ -0,0 +1,300 @@
+package com.zaxxer.q2o;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A typed query template. Conditions and order are given by attribute names, which are resolved to columns when the
+ * template is compiled; that happens once per template, on its first execution. Executions then only bind the
+ * argument values, converted like the attribute values of entities ({@link javax.persistence.AttributeConverter}s,
+ * enums).
+ * <pre>
+ * private static final Q2Query&lt;Customer&gt; BY_LAST_NAME =
+ *    Q2Query.of(Customer.class).where("lastName", Q2Query.Op.EQ).orderBy("id").limit();
+ * ...
+ * List&lt;Customer&gt; customers = BY_LAST_NAME.list("Smith", 100);
+ * </pre>
+ * Templates are immutable and thread safe, every builder method returns a new template. Keep them in constants to
+ * compile them only once.
+ *
+ * @param <T> the type of the objects
+ */
+public final class Q2Query<T> {
+
+   /**
+    * Comparison operators of conditions.
+    */
+   public enum Op {
+      EQ(" = ?"),
+      NE(" <> ?"),
+      LT(" < ?"),
+      LE(" <= ?"),
+      GT(" > ?"),
+      GE(" >= ?"),
+      LIKE(" LIKE ?"),
+      /** takes a Collection or an array of values as argument. */
+      IN(" IN (?)"),
+      /** takes no argument. */
+      IS_NULL(" IS NULL"),
+      /** takes no argument. */
+      IS_NOT_NULL(" IS NOT NULL");
+
+      private final String sql;
+
+      Op(final String sql) {
+         this.sql = sql;
+      }
+
+      boolean hasArgument() {
+         return this != IS_NULL && this != IS_NOT_NULL;
+      }
+   }
+
+   private static final class Condition {
+      final String attributeName;
+      final Op op;
+
+      Condition(final String attributeName, final Op op) {
+         this.attributeName = attributeName;
+         this.op = op;
+      }
+   }
+
+   private static final class Order {
+      final String attributeName;
+      final boolean isDescending;
+
+      Order(final String attributeName, final boolean isDescending) {
+         this.attributeName = attributeName;
+         this.isDescending = isDescending;
+      }
+   }
+
+   /**
+    * The SQL of a template and the attribute of each parameter, to convert the arguments.
+    */
+   private static final class Compiled {
+      final String sql;
+      final AttributeInfo[] parameterInfos;
+      final boolean[] isInParameter;
+
+      Compiled(final String sql, final AttributeInfo[] parameterInfos, final boolean[] isInParameter) {
+         this.sql = sql;
+         this.parameterInfos = parameterInfos;
+         this.isInParameter = isInParameter;
+      }
+   }
+
+   private final Class<T> clazz;
+   private final List<Condition> conditions;
+   private final List<Order> orders;
+   private final boolean hasLimit;
+   private volatile Compiled compiled;
+
+   private Q2Query(final Class<T> clazz, final List<Condition> conditions, final List<Order> orders, final boolean hasLimit) {
+      this.clazz = clazz;
+      this.conditions = conditions;
+      this.orders = orders;
+      this.hasLimit = hasLimit;
+   }
+
+   /**
+    * @param clazz the class of the objects
+    * @param <T> the type of the objects
+    * @return a template selecting all objects of the class
+    */
+   public static <T> Q2Query<T> of(final Class<T> clazz) {
+      return new Q2Query<>(clazz, Collections.emptyList(), Collections.emptyList(), false);
+   }
+
+   /**
+    * Add a condition. All conditions must be met.
+    *
+    * @param attributeName the name of an attribute (not the column)
+    * @param op the comparison, its argument is passed on execution
+    * @return a new template
+    */
+   public Q2Query<T> where(final String attributeName, final Op op) {
+      final List<Condition> newConditions = new ArrayList<>(conditions);
+      newConditions.add(new Condition(attributeName, op));
+      return new Q2Query<>(clazz, Collections.unmodifiableList(newConditions), orders, hasLimit);
+   }
+
+   /**
+    * Order by an attribute, ascending. Orders are applied in the sequence they were added.
+    *
+    * @param attributeName the name of an attribute (not the column)
+    * @return a new template
+    */
+   public Q2Query<T> orderBy(final String attributeName) {
+      return order(attributeName, false);
+   }
+
+   /**
+    * @see #orderBy(String)
+    */
+   public Q2Query<T> orderByDesc(final String attributeName) {
+      return order(attributeName, true);
+   }
+
+   private Q2Query<T> order(final String attributeName, final boolean isDescending) {
+      final List<Order> newOrders = new ArrayList<>(orders);
+      newOrders.add(new Order(attributeName, isDescending));
+      return new Q2Query<>(clazz, conditions, Collections.unmodifiableList(newOrders), hasLimit);
+   }
+
+   /**
+    * Limit the number of objects read. The limit is passed as last argument on execution, 0 means no limit. It is
+    * applied by {@link java.sql.Statement#setMaxRows(int)}, so the SQL is the same for all limits and all databases.
+    *
+    * @return a new template
+    */
+   public Q2Query<T> limit() {
+      return new Q2Query<>(clazz, conditions, orders, true);
+   }
+
+   /**
+    * @param connection a SQL Connection object
+    * @param args the arguments of the conditions in the order they were added, followed by the limit if any
+    * @return a list of populated objects
+    * @throws SQLException if a {@link SQLException} occurs
+    */
+   public List<T> list(final Connection connection, final Object... args) throws SQLException {
+      return execute(connection, 0, args);
+   }
+
+   /**
+    * @see #list(Connection, Object...)
+    */
+   public List<T> list(final Object... args) {
+      return SqlClosure.sqlExecute(c -> list(c, args));
+   }
+
+   /**
+    * @param connection a SQL Connection object
+    * @param args the arguments of the conditions in the order they were added, followed by the limit if any
+    * @return the first object or null if there is none
+    * @throws SQLException if a {@link SQLException} occurs
+    */
+   public T first(final Connection connection, final Object... args) throws SQLException {
+      final List<T> list = execute(connection, 1, args);
+      return list.isEmpty() ? null : list.get(0);
+   }
+
+   /**
+    * @see #first(Connection, Object...)
+    */
+   public T first(final Object... args) {
+      return SqlClosure.sqlExecute(c -> first(c, args));
+   }
+
+   /**
+    * @return the SQL of this template, with a single ? for the values of IN conditions.
+    */
+   public String toSql() {
+      return compile().sql;
+   }
+
+   private List<T> execute(final Connection connection, final int maxRows, final Object... args) throws SQLException {
+      final Compiled template = compile();
+      final AttributeInfo[] parameterInfos = template.parameterInfos;
+      final int expectedArgs = parameterInfos.length + (hasLimit ? 1 : 0);
+      if (args.length != expectedArgs) {
+         throw new IllegalArgumentException("Query expects " + expectedArgs + " arguments, got " + args.length + ": " + template.sql);
+      }
+      final Object[] values = new Object[parameterInfos.length];
+      for (int i = 0; i < values.length; i++) {
+         values[i] = template.isInParameter[i] ? toDatabaseValues(parameterInfos[i], args[i]) : toDatabaseValue(parameterInfos[i], args[i]);
+      }
+      int limit = maxRows;
+      if (hasLimit) {
+         final int argLimit = ((Number) args[args.length - 1]).intValue();
+         limit = limit == 0 ? argLimit : argLimit == 0 ? limit : Math.min(limit, argLimit);
+      }
+
+      final ExpandedSql expanded = ExpandedSql.expand(connection, template.sql, values);
+      final PreparedStatement stmt = connection.prepareStatement(expanded.sql);
+      try {
+         stmt.setMaxRows(limit);
+      }
+      catch (SQLException e) {
+         stmt.close();
+         throw e;
+      }
+      return OrmReader.statementToList(stmt, clazz, expanded.args);
+   }
+
+   private static Object toDatabaseValue(final AttributeInfo fcInfo, final Object value) {
+      // values already given in their database representation are bound as they are
+      return value != null && fcInfo.getType().isInstance(value) ? Introspected.toDatabaseValue(fcInfo, value) : value;
+   }
+
+   private static Object toDatabaseValues(final AttributeInfo fcInfo, final Object values) {
+      if (values instanceof Collection) {
+         final List<Object> converted = new ArrayList<>(((Collection<?>) values).size());
+         for (final Object value : (Collection<?>) values) {
+            converted.add(toDatabaseValue(fcInfo, value));
+         }
+         return converted;
+      }
+      if (values instanceof Object[]) {
+         final List<Object> converted = new ArrayList<>(((Object[]) values).length);
+         for (final Object value : (Object[]) values) {
+            converted.add(toDatabaseValue(fcInfo, value));
+         }
+         return converted;
+      }
+      return values;
+   }
+
+   private Compiled compile() {
+      Compiled template = compiled;
+      if (template == null) {
+         final Introspected introspected = Introspector.getIntrospected(clazz);
+         final String tableName = introspected.getDelimitedTableName();
+         final StringBuilder sql = new StringBuilder()
+            .append("SELECT ").append(OrmBase.getColumnsCsv(clazz, tableName))
+            .append(" FROM ").append(tableName).append(' ').append(tableName);
+
+         final List<AttributeInfo> parameterInfos = new ArrayList<>();
+         final List<Boolean> isInParameter = new ArrayList<>();
+         for (int i = 0; i < conditions.size(); i++) {
+            final Condition condition = conditions.get(i);
+            final AttributeInfo fcInfo = resolve(introspected, condition.attributeName);
+            sql.append(i == 0 ? " WHERE " : " AND ").append(fcInfo.getFullyQualifiedDelimitedFieldName(tableName)).append(condition.op.sql);
+            if (condition.op.hasArgument()) {
+               parameterInfos.add(fcInfo);
+               isInParameter.add(condition.op == Op.IN);
+            }
+         }
+         for (int i = 0; i < orders.size(); i++) {
+            final Order order = orders.get(i);
+            sql.append(i == 0 ? " ORDER BY " : ", ").append(resolve(introspected, order.attributeName).getFullyQualifiedDelimitedFieldName(tableName));
+            if (order.isDescending) {
+               sql.append(" DESC");
+            }
+         }
+
+         final boolean[] isIn = new boolean[isInParameter.size()];
+         for (int i = 0; i < isIn.length; i++) {
+            isIn[i] = isInParameter.get(i);
+         }
+         template = new Compiled(sql.toString(), parameterInfos.toArray(new AttributeInfo[0]), isIn);
+         compiled = template;
+      }
+      return template;
+   }
+
+   private AttributeInfo resolve(final Introspected introspected, final String attributeName) {
+      final AttributeInfo fcInfo = introspected.getFieldColumnInfoForProperty(attributeName);
+      if (fcInfo == null || fcInfo.isJoinFieldWithSecondTable()) {
+         throw new IllegalArgumentException("No attribute " + attributeName + " mapped to a column of " + clazz.getName());
+      }
+      return fcInfo;
+   }
+}
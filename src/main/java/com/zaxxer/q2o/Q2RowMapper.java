@@ -0,0 +1,149 @@
+package com.zaxxer.q2o;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Maps the current row of a ResultSet managed by someone else, e.g. by Spring's {@code JdbcTemplate}, to a new
+ * object. Unlike {@link Q2Obj#fromResultSet(ResultSet, Object)} the mapper binds to a ResultSet once: metadata,
+ * ignored columns and the attribute of every column are resolved on the first row, so each following row only costs
+ * reading and setting its values.
+ * <pre>
+ * Q2RowMapper&lt;Customer&gt; mapper = new Q2RowMapper&lt;&gt;(Customer.class);
+ * List&lt;Customer&gt; customers = jdbcTemplate.query("SELECT * FROM customer", mapper::mapRow);
+ * </pre>
+ * A mapper can be shared between threads and used for any number of ResultSets; it rebinds whenever it is handed a
+ * different ResultSet. Results of joined tables are mapped like by {@link Q2Obj#fromResultSet(ResultSet, Object)},
+ * with the metadata still read only once per ResultSet.
+ *
+ * @param <T> the type of the objects
+ */
+public final class Q2RowMapper<T> {
+
+   private final Class<T> clazz;
+   private final Set<String> ignoredColumns;
+   private volatile Binding<T> binding;
+
+   /**
+    * The columns of a single ResultSet resolved to attributes.
+    */
+   private static final class Binding<T> {
+      final ResultSet resultSet;
+      final Introspected introspected;
+      /** column indexes and their attributes, in mapping order. null if the result contains joined tables. */
+      final int[] columnIndexes;
+      final AttributeInfo[] fcInfos;
+      /** maps results of joined tables, null otherwise. */
+      final OrmReader.ResultSetToObjectProcessor<T> processor;
+
+      Binding(final ResultSet resultSet, final Introspected introspected, final int[] columnIndexes, final AttributeInfo[] fcInfos,
+              final OrmReader.ResultSetToObjectProcessor<T> processor) {
+         this.resultSet = resultSet;
+         this.introspected = introspected;
+         this.columnIndexes = columnIndexes;
+         this.fcInfos = fcInfos;
+         this.processor = processor;
+      }
+   }
+
+   /**
+    * @param clazz the class of the objects
+    */
+   public Q2RowMapper(final Class<T> clazz) {
+      this(clazz, Collections.emptySet());
+   }
+
+   /**
+    * @param clazz the class of the objects
+    * @param ignoredColumns the columns in the result set to ignore. Case as in name element or property name.
+    */
+   public Q2RowMapper(final Class<T> clazz, final Set<String> ignoredColumns) {
+      this.clazz = clazz;
+      this.ignoredColumns = ignoredColumns;
+   }
+
+   /**
+    * Map the current row. ResultSet.next() must have been called. <b>The ResultSet is not closed.</b>
+    *
+    * @param resultSet a {@link ResultSet} positioned on a row
+    * @return a new populated object
+    * @throws SQLException if a {@link SQLException} occurs
+    */
+   public T mapRow(final ResultSet resultSet) throws SQLException {
+      Binding<T> current = binding;
+      if (current == null || current.resultSet != resultSet) {
+         current = bind(resultSet);
+         binding = current;
+      }
+      if (current.processor != null) {
+         return current.processor.processRow(clazz);
+      }
+
+      final Introspected introspected = current.introspected;
+      final T target;
+      try {
+         target = clazz.newInstance();
+      }
+      catch (InstantiationException | IllegalAccessException e) {
+         throw new RuntimeException(e);
+      }
+      final int[] columnIndexes = current.columnIndexes;
+      final AttributeInfo[] fcInfos = current.fcInfos;
+      for (int i = 0; i < columnIndexes.length; i++) {
+         final Object columnValue = resultSet.getObject(columnIndexes[i]);
+         if (columnValue != null) {
+            introspected.set(target, fcInfos[i], columnValue);
+         }
+      }
+      return target;
+   }
+
+   /**
+    * Same as {@link #mapRow(ResultSet)}, with the signature of Spring's {@code RowMapper}.
+    *
+    * @param resultSet a {@link ResultSet} positioned on a row
+    * @param rowNum ignored
+    * @return a new populated object
+    * @throws SQLException if a {@link SQLException} occurs
+    */
+   public T mapRow(final ResultSet resultSet, final int rowNum) throws SQLException {
+      return mapRow(resultSet);
+   }
+
+   private Binding<T> bind(final ResultSet resultSet) throws SQLException {
+      final Introspected introspected = Introspector.getIntrospected(clazz);
+      final ResultSetMetaData metaData = resultSet.getMetaData();
+      final String[] columnNames = new String[metaData.getColumnCount()];
+      final String[] tableNames = new String[columnNames.length];
+      OrmReader.readColumnMetaData(metaData, columnNames, tableNames);
+
+      final List<Integer> columnIndexes = new ArrayList<>(columnNames.length);
+      final List<AttributeInfo> fcInfos = new ArrayList<>(columnNames.length);
+      // same order as ResultSetToObjectProcessor, so the first of several columns mapping to an attribute wins
+      for (int colIdx = columnNames.length; colIdx > 0; colIdx--) {
+         final String columnName = columnNames[colIdx - 1];
+         if (OrmBase.isIgnoredColumn(ignoredColumns, columnName)) {
+            continue;
+         }
+         final String tableName = tableNames[colIdx - 1];
+         if (!tableName.isEmpty() && !tableName.equalsIgnoreCase(introspected.getTableName())) {
+            return new Binding<>(resultSet, introspected, null, null, new OrmReader.ResultSetToObjectProcessor<>(resultSet, ignoredColumns));
+         }
+         final AttributeInfo fcInfo = introspected.getFieldColumnInfo(columnName);
+         if (fcInfo != null) {
+            columnIndexes.add(colIdx);
+            fcInfos.add(fcInfo);
+         }
+      }
+      final int[] indexes = new int[columnIndexes.size()];
+      for (int i = 0; i < indexes.length; i++) {
+         indexes[i] = columnIndexes.get(i);
+      }
+      return new Binding<>(resultSet, introspected, indexes, fcInfos.toArray(new AttributeInfo[0]), null);
+   }
+}
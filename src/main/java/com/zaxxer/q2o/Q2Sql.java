@@ -3,6 +3,9 @@ package com.zaxxer.q2o;
 import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 public class Q2Sql {
    /**
@@ -19,6 +22,80 @@ public class Q2Sql {
       return SqlClosure.sqlExecute(c -> numberFromSql(c, sql, args));
    }
 
+   /**
+    * Get the first column of all rows of a SQL query as a primitive array, e. g. a list of ids. No wrapper
+    * objects are created, so this needs only a fraction of the memory of a {@code List<Long>}. SQL NULL is
+    * returned as 0.
+    *
+    * @param sql a SQL statement string
+    * @param args optional values for a parametrized query
+    * @return the values in row order, or an empty array
+    */
+   public static long[] longsFromSql(String sql, Object... args)
+   {
+      return SqlClosure.sqlExecute(c -> longsFromSql(c, sql, args));
+   }
+
+   /**
+    * @see #longsFromSql(String, Object...)
+    */
+   public static long[] longsFromSql(Connection connection, String sql, Object... args) throws SQLException
+   {
+      return OrmReader.longsFromSql(connection, sql, args);
+   }
+
+   /**
+    * @see #longsFromSql(String, Object...)
+    */
+   public static int[] intsFromSql(String sql, Object... args)
+   {
+      return SqlClosure.sqlExecute(c -> intsFromSql(c, sql, args));
+   }
+
+   /**
+    * @see #longsFromSql(String, Object...)
+    */
+   public static int[] intsFromSql(Connection connection, String sql, Object... args) throws SQLException
+   {
+      return OrmReader.intsFromSql(connection, sql, args);
+   }
+
+   /**
+    * @see #longsFromSql(String, Object...)
+    */
+   public static double[] doublesFromSql(String sql, Object... args)
+   {
+      return SqlClosure.sqlExecute(c -> doublesFromSql(c, sql, args));
+   }
+
+   /**
+    * @see #longsFromSql(String, Object...)
+    */
+   public static double[] doublesFromSql(Connection connection, String sql, Object... args) throws SQLException
+   {
+      return OrmReader.doublesFromSql(connection, sql, args);
+   }
+
+   /**
+    * Get the first column of all rows of a SQL query as a String array. SQL NULL is returned as null.
+    *
+    * @param sql a SQL statement string
+    * @param args optional values for a parametrized query
+    * @return the values in row order, or an empty array
+    */
+   public static String[] stringsFromSql(String sql, Object... args)
+   {
+      return SqlClosure.sqlExecute(c -> stringsFromSql(c, sql, args));
+   }
+
+   /**
+    * @see #stringsFromSql(String, Object...)
+    */
+   public static String[] stringsFromSql(Connection connection, String sql, Object... args) throws SQLException
+   {
+      return OrmReader.stringsFromSql(connection, sql, args);
+   }
+
    /**
     * Executes an update or insert statement.
     * @param sql The SQL to execute.
@@ -34,6 +111,9 @@ public class Q2Sql {
     * Get a SQL "IN" clause for the number of items.
     * Provided as a conventient alternative to {@link #getInClausePlaceholdersForCount(int)}
     * (at a cost of possible additional array construction).
+    * <p>
+    * Usually it is simpler to pass the collection or array itself as the argument of an {@code IN (?)} list, which
+    * is expanded automatically to a small number of distinct statements.
     *
     * @param <T> to ensure that all items are on the same type
     * @param items a list of items
@@ -100,11 +180,11 @@ public class Q2Sql {
     */
    public static ResultSet executeQuery(Connection connection, String sql, Object... args) throws SQLException
    {
-      return OrmReader.statementToResultSet(connection.prepareStatement(sql), args);
+      return OrmReader.sqlToResultSet(connection, sql, args);
    }
 
    public static ResultSet executeQuery(String sql, Object... args) {
-      return SqlClosure.sqlExecute(connection -> OrmReader.statementToResultSet(connection.prepareStatement(sql), args));
+      return SqlClosure.sqlExecute(connection -> OrmReader.sqlToResultSet(connection, sql, args));
    }
 
    public static int executeUpdate(Connection connection, String sql, Object... args) throws SQLException
@@ -112,6 +192,76 @@ public class Q2Sql {
       return OrmWriter.executeUpdate(connection, sql, args);
    }
 
+   /**
+    * Call a stored procedure. Pass an {@link OutParameter} for every OUT or INOUT parameter; their values are
+    * available when this method returns.
+    *
+    * @param callSql the call in JDBC escape syntax, e.g. {@code {call close_orders(?, ?)}} or {@code {? = call total(?)}}
+    * @param args the IN values and {@link OutParameter}s in parameter order
+    * @return the update count, or -1 if the call returned a result set or no update count
+    * @see Q2ObjList#fromProcedure(Class, String, Object...)
+    */
+   public static int call(String callSql, Object... args)
+   {
+      return SqlClosure.sqlExecute(c -> OrmWriter.call(c, callSql, args));
+   }
+
+   /**
+    * @see #call(String, Object...)
+    */
+   public static int call(Connection connection, String callSql, Object... args) throws SQLException
+   {
+      return OrmWriter.call(connection, callSql, args);
+   }
+
+   /**
+    * Execute an ad-hoc query and get all rows without mapping them to an entity class. The rows share one column
+    * index, so apart from the values a row costs only a small object. Statement and ResultSet are closed.
+    *
+    * @param sql the SQL statement to prepare and execute
+    * @param args the optional arguments to execute with the query
+    * @return the rows, or an empty list
+    * @see #listOfMaps(String, Object...)
+    */
+   public static List<ResultRow> listOfRows(String sql, Object... args)
+   {
+      return SqlClosure.sqlExecute(c -> listOfRows(c, sql, args));
+   }
+
+   /**
+    * @see #listOfRows(String, Object...)
+    */
+   public static List<ResultRow> listOfRows(Connection connection, String sql, Object... args) throws SQLException
+   {
+      return OrmReader.sqlToRows(connection, sql, args);
+   }
+
+   /**
+    * Like {@link #listOfRows(String, Object...)}, but every row is presented as an unmodifiable map from column label
+    * to value. The maps are views on the rows, so no {@code HashMap} is created per row. Keys are case insensitive.
+    *
+    * @param sql the SQL statement to prepare and execute
+    * @param args the optional arguments to execute with the query
+    * @return the rows, or an empty list
+    */
+   public static List<Map<String, Object>> listOfMaps(String sql, Object... args)
+   {
+      return SqlClosure.sqlExecute(c -> listOfMaps(c, sql, args));
+   }
+
+   /**
+    * @see #listOfMaps(String, Object...)
+    */
+   public static List<Map<String, Object>> listOfMaps(Connection connection, String sql, Object... args) throws SQLException
+   {
+      final List<ResultRow> rows = listOfRows(connection, sql, args);
+      final List<Map<String, Object>> maps = new ArrayList<>(rows.size());
+      for (final ResultRow row : rows) {
+         maps.add(row.asMap());
+      }
+      return maps;
+   }
+
    /**
     * Get a comma separated values list of column names for the given class, suitable
     * for inclusion into a SQL SELECT statement.
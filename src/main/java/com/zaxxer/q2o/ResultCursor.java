@@ -0,0 +1,206 @@
+package com.zaxxer.q2o;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Pulls objects from an open query result only on demand. A row is read and mapped when the consumer asks for it. The
+ * statement is executed with a fetch size of {@code com.zaxxer.q2o.cursorFetchSize} rows (system property, default
+ * 100) and {@link #next(int)} sets the fetch size to the requested number of objects, so the driver fetches rows from
+ * the database cursor in step with the consumer's demand. Nothing is buffered beyond the driver's fetch.
+ * <p>
+ * The cursor releases statement and connection as soon as the last row has been read, or when it is closed
+ * (cancelled) earlier. Always close it, e.g. with try-with-resources or by closing its {@link #stream()}. A cursor
+ * opened within an active q2o transaction reads on the transaction's connection and leaves it open.
+ * <p>
+ * Some drivers, PostgreSQL's for instance, only use a database cursor outside auto-commit mode. A cursor on a
+ * connection of its own therefore turns auto-commit off while it is open and restores it when closed. On a connection
+ * owned by the caller, auto-commit is left as it is.
+ *
+ * @param <T> the type of the objects
+ * @see Q2ObjList#cursor(Class, String, Object...)
+ */
+public final class ResultCursor<T> implements Iterator<T>, AutoCloseable {
+
+   static final int FETCH_SIZE = Integer.getInteger("com.zaxxer.q2o.cursorFetchSize", 100);
+
+   private final Class<T> clazz;
+   /** null if the connection is owned by the caller. */
+   private final Connection ownedConnection;
+   /** true if auto-commit of the owned connection was turned off for the cursor. */
+   private final boolean restoreAutoCommit;
+   private final PreparedStatement stmt;
+   private final ResultSet resultSet;
+   private final OrmReader.ResultSetToObjectProcessor<T> processor;
+   private boolean isRowFetched;
+   private boolean hasRow;
+   private boolean isClosed;
+
+   ResultCursor(final Connection connection, final boolean ownsConnection, final Class<T> clazz, final String clause, final Object... args) throws SQLException {
+      this.clazz = clazz;
+      this.ownedConnection = ownsConnection ? connection : null;
+      PreparedStatement statement = null;
+      boolean autoCommitDisabled = false;
+      try {
+         if (ownsConnection && connection.getAutoCommit()) {
+            connection.setAutoCommit(false);
+            autoCommitDisabled = true;
+         }
+         final ExpandedSql expanded = ExpandedSql.expand(connection, OrmReader.generateSelectFromClause(clazz, clause), args);
+         statement = connection.prepareStatement(expanded.sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+         statement.setFetchSize(FETCH_SIZE);
+         this.stmt = statement;
+         this.resultSet = OrmReader.statementToResultSet(statement, expanded.args);
+         this.processor = new OrmReader.ResultSetToObjectProcessor<>(resultSet, new HashSet<>());
+      }
+      catch (SQLException | RuntimeException e) {
+         if (statement != null) {
+            statement.close();
+         }
+         if (ownsConnection) {
+            try {
+               if (autoCommitDisabled) {
+                  connection.setAutoCommit(true);
+               }
+            }
+            finally {
+               connection.close();
+            }
+         }
+         throw e;
+      }
+      this.restoreAutoCommit = autoCommitDisabled;
+   }
+
+   @Override
+   public boolean hasNext() {
+      if (!isRowFetched) {
+         if (isClosed) {
+            return false;
+         }
+         try {
+            hasRow = resultSet.next();
+         }
+         catch (SQLException e) {
+            close();
+            throw new RuntimeException(e);
+         }
+         isRowFetched = true;
+         if (!hasRow) {
+            close();
+         }
+      }
+      return hasRow;
+   }
+
+   @Override
+   public T next() {
+      if (!hasNext()) {
+         throw new NoSuchElementException();
+      }
+      isRowFetched = false;
+      try {
+         return processor.processRow(clazz);
+      }
+      catch (SQLException e) {
+         close();
+         throw new RuntimeException(e);
+      }
+   }
+
+   /**
+    * Pull up to {@code n} objects, letting the driver fetch that many rows at once.
+    *
+    * @param n the number of objects requested
+    * @return the objects, fewer than requested only if the result is exhausted
+    */
+   public List<T> next(final int n) {
+      if (n < 1) {
+         throw new IllegalArgumentException("n must be greater than zero");
+      }
+      final List<T> objects = new ArrayList<>(Math.min(n, 1024));
+      if (!isClosed) {
+         try {
+            resultSet.setFetchSize(n);
+         }
+         catch (SQLException e) {
+            close();
+            throw new RuntimeException(e);
+         }
+      }
+      while (objects.size() < n && hasNext()) {
+         objects.add(next());
+      }
+      return objects;
+   }
+
+   /**
+    * @return a sequential stream pulling from this cursor. Closing the stream closes the cursor.
+    */
+   public Stream<T> stream() {
+      return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+         .onClose(this::close);
+   }
+
+   /**
+    * @return true if the cursor has been closed, either explicitly or because the result was exhausted.
+    */
+   public boolean isClosed() {
+      return isClosed;
+   }
+
+   /**
+    * package private for testing.
+    */
+   PreparedStatement getStatement() {
+      return stmt;
+   }
+
+   /**
+    * Release ResultSet, statement and, if it was taken from the default DataSource, the connection. Safe to call
+    * more than once.
+    */
+   @Override
+   public void close() {
+      if (isClosed) {
+         return;
+      }
+      isClosed = true;
+      try {
+         try {
+            resultSet.close();
+         }
+         finally {
+            try {
+               stmt.close();
+            }
+            finally {
+               if (ownedConnection != null) {
+                  try {
+                     if (restoreAutoCommit) {
+                        ownedConnection.setAutoCommit(true);
+                     }
+                  }
+                  finally {
+                     ownedConnection.close();
+                  }
+               }
+            }
+         }
+      }
+      catch (SQLException e) {
+         throw new RuntimeException(e);
+      }
+   }
+}
@@ -0,0 +1,182 @@
+package com.zaxxer.q2o;
+
+import javax.persistence.AttributeConverter;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.channels.WritableByteChannel;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.Base64;
+
+/**
+ * Writes the rows of an entity's table as CSV or JSON Lines without instantiating entities. Column values pass the
+ * same conversions as when mapped to the entity ({@link AttributeConverter}s, enums, Clobs) and are then formatted as
+ * text. Columns are named after the entity's attributes, columns that map to no attribute after their label.
+ */
+final class ResultExporter {
+
+   enum Format { CSV, JSON_LINES }
+
+   private ResultExporter() {
+   }
+
+   static long export(final Connection connection, final Class<?> clazz, final Format format, final WritableByteChannel channel,
+                      final String clause, final Object... args) throws SQLException, IOException {
+      final Introspected introspected = Introspector.getIntrospected(clazz);
+      final ExpandedSql expanded = ExpandedSql.expand(connection, OrmReader.generateSelectFromClause(clazz, clause), args);
+      try (final PreparedStatement stmt = connection.prepareStatement(expanded.sql);
+           final ResultSet resultSet = OrmReader.statementToResultSet(stmt, expanded.args)) {
+         final ResultSetMetaData metaData = resultSet.getMetaData();
+         final int columnCount = metaData.getColumnCount();
+         final String[] names = new String[columnCount];
+         final AttributeInfo[] infos = new AttributeInfo[columnCount];
+         for (int colIdx = 1; colIdx <= columnCount; colIdx++) {
+            final String tableName = metaData.getTableName(colIdx);
+            final AttributeInfo info = tableName.isEmpty() || tableName.equalsIgnoreCase(introspected.getTableName())
+               ? introspected.getFieldColumnInfo(metaData.getColumnName(colIdx))
+               : null;
+            infos[colIdx - 1] = info;
+            names[colIdx - 1] = info != null ? info.getName() : metaData.getColumnLabel(colIdx);
+         }
+
+         final ChannelTextWriter writer = new ChannelTextWriter(channel);
+         if (format == Format.CSV) {
+            for (int i = 0; i < columnCount; i++) {
+               if (i > 0) {
+                  writer.write(',');
+               }
+               writeCsvValue(writer, names[i]);
+            }
+            writer.write("\r\n");
+         }
+
+         long rowCount = 0;
+         while (resultSet.next()) {
+            if (format == Format.JSON_LINES) {
+               writer.write('{');
+            }
+            for (int i = 0; i < columnCount; i++) {
+               final Object value = toAttributeValue(resultSet.getObject(i + 1), infos[i]);
+               if (i > 0) {
+                  writer.write(',');
+               }
+               if (format == Format.CSV) {
+                  if (value != null) {
+                     writeCsvValue(writer, format(value));
+                  }
+               }
+               else {
+                  writeJsonString(writer, names[i]);
+                  writer.write(':');
+                  writeJsonValue(writer, value);
+               }
+            }
+            writer.write(format == Format.CSV ? "\r\n" : "}\n");
+            rowCount++;
+         }
+         writer.finish();
+         return rowCount;
+      }
+   }
+
+   @SuppressWarnings("unchecked")
+   private static Object toAttributeValue(final Object value, final AttributeInfo info) throws SQLException, IOException {
+      if (value instanceof Clob) {
+         return Introspected.readClob((Clob) value);
+      }
+      if (info == null) {
+         return value;
+      }
+      if (info.getConverter() != null) {
+         return ((AttributeConverter<Object, Object>) info.getConverter()).convertToEntityAttribute(value);
+      }
+      if (value != null && info.enumConstants != null) {
+         return info.enumConstants.get(value);
+      }
+      return value;
+   }
+
+   private static String format(final Object value) {
+      if (value instanceof BigDecimal) {
+         return ((BigDecimal) value).toPlainString();
+      }
+      if (value instanceof Enum) {
+         return ((Enum<?>) value).name();
+      }
+      if (value instanceof byte[]) {
+         return Base64.getEncoder().encodeToString((byte[]) value);
+      }
+      return value.toString();
+   }
+
+   private static void writeCsvValue(final ChannelTextWriter writer, final String s) throws IOException {
+      boolean needsQuotes = false;
+      for (int i = 0; i < s.length() && !needsQuotes; i++) {
+         final char c = s.charAt(i);
+         needsQuotes = c == ',' || c == '"' || c == '\r' || c == '\n';
+      }
+      if (!needsQuotes) {
+         writer.write(s);
+         return;
+      }
+      writer.write('"');
+      for (int i = 0; i < s.length(); i++) {
+         final char c = s.charAt(i);
+         if (c == '"') {
+            writer.write('"');
+         }
+         writer.write(c);
+      }
+      writer.write('"');
+   }
+
+   private static void writeJsonValue(final ChannelTextWriter writer, final Object value) throws IOException {
+      if (value == null) {
+         writer.write("null");
+      }
+      else if (value instanceof Boolean
+         || value instanceof Number && !(value instanceof Double && !Double.isFinite((Double) value))
+                                    && !(value instanceof Float && !Float.isFinite((Float) value))) {
+         writer.write(format(value));
+      }
+      else {
+         writeJsonString(writer, format(value));
+      }
+   }
+
+   private static void writeJsonString(final ChannelTextWriter writer, final String s) throws IOException {
+      writer.write('"');
+      for (int i = 0; i < s.length(); i++) {
+         final char c = s.charAt(i);
+         switch (c) {
+         case '"':
+            writer.write("\\\"");
+            break;
+         case '\\':
+            writer.write("\\\\");
+            break;
+         case '\n':
+            writer.write("\\n");
+            break;
+         case '\r':
+            writer.write("\\r");
+            break;
+         case '\t':
+            writer.write("\\t");
+            break;
+         default:
+            if (c < 0x20) {
+               writer.write(String.format("\\u%04x", (int) c));
+            }
+            else {
+               writer.write(c);
+            }
+         }
+      }
+      writer.write('"');
+   }
+}
@@ -0,0 +1,81 @@
+package com.zaxxer.q2o;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Limits for materializing query results into lists: a maximum number of rows and a maximum estimated heap size of the
+ * column values. Once a limit would be exceeded the read either fails with a {@link RuntimeException} or stops and
+ * returns the rows read so far as a list for which {@link #isTruncated(List)} returns true.
+ * <p>
+ * The global guard set with {@link q2o#setResultGuard(ResultGuard)} applies to the lists of entities returned by the
+ * {@link Q2ObjList} methods {@code fromClause}, {@code fromClauseWithGraph}, {@code fromSelect}, {@code fromStatement},
+ * {@code fromResultSet}, {@code named}, {@code fromProcedure}, {@code namedProcedure}, {@code fromClauseBuffered} and
+ * {@code fromSelectBuffered}. A per call guard can be passed to
+ * {@link Q2ObjList#fromClauseGuarded(Class, ResultGuard, String, Object...)}. Not guarded are the projections of
+ * {@code namedProjection} and {@code fromResultSetMapping}, the maps of {@code mapById} and {@code groupBy}, and the
+ * reads meant for large results: {@code fromClauseSpilling}, {@code cursor} and {@code parallelScan}. Rows are counted
+ * and sizes estimated in the mapping loop, so a guard is cheap enough to be always on.
+ */
+public final class ResultGuard {
+
+   /** No limits, the default. */
+   public static final ResultGuard UNLIMITED = new ResultGuard(Integer.MAX_VALUE, Long.MAX_VALUE, false);
+
+   final int maxRows;
+   final long maxBytes;
+   final boolean truncate;
+
+   private ResultGuard(final int maxRows, final long maxBytes, final boolean truncate) {
+      if (maxRows < 0 || maxBytes < 0) {
+         throw new IllegalArgumentException("Limits must not be negative");
+      }
+      this.maxRows = maxRows;
+      this.maxBytes = maxBytes;
+      this.truncate = truncate;
+   }
+
+   /**
+    * @param maxRows the maximum number of rows, {@link Integer#MAX_VALUE} for no limit
+    * @param maxBytes the maximum estimated heap size of the column values, {@link Long#MAX_VALUE} for no limit
+    * @return a guard failing the read with a {@link RuntimeException} if a limit is exceeded
+    */
+   public static ResultGuard failAbove(final int maxRows, final long maxBytes) {
+      return new ResultGuard(maxRows, maxBytes, false);
+   }
+
+   /**
+    * @param maxRows the maximum number of rows, {@link Integer#MAX_VALUE} for no limit
+    * @param maxBytes the maximum estimated heap size of the column values, {@link Long#MAX_VALUE} for no limit
+    * @return a guard returning the rows within the limits if a limit is exceeded
+    */
+   public static ResultGuard truncateAbove(final int maxRows, final long maxBytes) {
+      return new ResultGuard(maxRows, maxBytes, true);
+   }
+
+   /**
+    * @param list a list returned by q2o
+    * @return true if the list was cut off by a truncating guard
+    */
+   public static boolean isTruncated(final List<?> list) {
+      return list instanceof GuardedList && ((GuardedList<?>) list).isTruncated;
+   }
+
+   boolean isUnlimited() {
+      return maxRows == Integer.MAX_VALUE && maxBytes == Long.MAX_VALUE;
+   }
+
+   @Override
+   public String toString() {
+      return "ResultGuard{maxRows=" + maxRows + ", maxBytes=" + maxBytes + ", truncate=" + truncate + '}';
+   }
+
+   /**
+    * The list filled under a truncating guard, marked when the read was cut off.
+    */
+   static final class GuardedList<T> extends ArrayList<T> {
+      private static final long serialVersionUID = -3183562094823576213L;
+
+      boolean isTruncated;
+   }
+}
@@ -0,0 +1,157 @@
+package com.zaxxer.q2o;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * A single row of an ad-hoc query result without an entity class. All rows of one result share the same column
+ * index, so a row costs not much more than the array of its values.
+ *
+ * @see Q2Sql#listOfRows(String, Object...)
+ * @see Q2Sql#listOfMaps(String, Object...)
+ */
+public final class ResultRow
+{
+   private final Columns columns;
+   private final Object[] values;
+
+   ResultRow(final Columns columns, final Object[] values) {
+      this.columns = columns;
+      this.values = values;
+   }
+
+   /**
+    * @param index zero based column index.
+    * @return the column value, possibly null.
+    */
+   public Object get(final int index) {
+      return values[index];
+   }
+
+   /**
+    * @param columnLabel case insensitive column label (the alias if one was given in the select).
+    * @return the column value, possibly null.
+    * @throws IllegalArgumentException if there is no such column.
+    */
+   public Object get(final String columnLabel) {
+      final int index = columns.indexOf(columnLabel);
+      if (index < 0) {
+         throw new IllegalArgumentException("No such column: " + columnLabel);
+      }
+      return values[index];
+   }
+
+   public int size() {
+      return values.length;
+   }
+
+   /**
+    * @return the column labels in select order.
+    */
+   public List<String> getColumnLabels() {
+      return columns.labelList;
+   }
+
+   /**
+    * @return a copy of the values in select order.
+    */
+   public Object[] toArray() {
+      return values.clone();
+   }
+
+   /**
+    * @return an unmodifiable view of this row as a map from column label to value. Iterates in select order,
+    * {@link Map#get(Object)} is case insensitive.
+    */
+   public Map<String, Object> asMap() {
+      return new RowMap();
+   }
+
+   @Override
+   public String toString() {
+      return asMap().toString();
+   }
+
+   /**
+    * The column labels of a result and the lookup from label to index. Created once per result.
+    */
+   static final class Columns
+   {
+      private final String[] labels;
+      private final List<String> labelList;
+      private final TreeMap<String, Integer> labelToIndex = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+      Columns(final String[] labels) {
+         this.labels = labels;
+         this.labelList = Collections.unmodifiableList(Arrays.asList(labels));
+         for (int i = labels.length - 1; i >= 0; i--) {
+            // first occurrence wins on duplicate labels
+            labelToIndex.put(labels[i], i);
+         }
+      }
+
+      int indexOf(final String label) {
+         final Integer index = labelToIndex.get(label);
+         return index != null ? index : -1;
+      }
+   }
+
+   private final class RowMap extends AbstractMap<String, Object>
+   {
+      @Override
+      public Object get(final Object key) {
+         final int index = key instanceof String ? columns.indexOf((String) key) : -1;
+         return index >= 0 ? values[index] : null;
+      }
+
+      @Override
+      public boolean containsKey(final Object key) {
+         return key instanceof String && columns.indexOf((String) key) >= 0;
+      }
+
+      @Override
+      public int size() {
+         return values.length;
+      }
+
+      @Override
+      public Set<Entry<String, Object>> entrySet() {
+         return new AbstractSet<Entry<String, Object>>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+               return new Iterator<Entry<String, Object>>() {
+                  private int index;
+
+                  @Override
+                  public boolean hasNext() {
+                     return index < values.length;
+                  }
+
+                  @Override
+                  public Entry<String, Object> next() {
+                     if (index >= values.length) {
+                        throw new NoSuchElementException();
+                     }
+                     final Entry<String, Object> entry = new SimpleImmutableEntry<>(columns.labels[index], values[index]);
+                     index++;
+                     return entry;
+                  }
+               };
+            }
+
+            @Override
+            public int size() {
+               return values.length;
+            }
+         };
+      }
+   }
+}
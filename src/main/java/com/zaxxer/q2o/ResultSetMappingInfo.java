@@ -0,0 +1,174 @@
+package com.zaxxer.q2o;
+
+import javax.persistence.ColumnResult;
+import javax.persistence.ConstructorResult;
+import javax.persistence.SqlResultSetMapping;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Clob;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A validated {@link SqlResultSetMapping} with a single {@link ConstructorResult}. The constructor is resolved when
+ * the declaring class is introspected, the column positions once per result set.
+ */
+final class ResultSetMappingInfo {
+
+   final String name;
+   private final Constructor<?> constructor;
+   private final String[] columnNames;
+   private final Class<?>[] parameterTypes;
+
+   ResultSetMappingInfo(final Class<?> declaringClass, final SqlResultSetMapping mapping) {
+      this.name = mapping.name();
+      if (mapping.classes().length != 1 || mapping.entities().length != 0 || mapping.columns().length != 0) {
+         throw new RuntimeException("@SqlResultSetMapping " + name + " on " + declaringClass.getName()
+            + " must consist of exactly one @ConstructorResult");
+      }
+
+      final ConstructorResult constructorResult = mapping.classes()[0];
+      final ColumnResult[] columns = constructorResult.columns();
+      this.columnNames = new String[columns.length];
+      for (int i = 0; i < columns.length; i++) {
+         columnNames[i] = columns[i].name();
+      }
+      this.constructor = findConstructor(constructorResult.targetClass(), columns);
+      this.constructor.setAccessible(true);
+      this.parameterTypes = constructor.getParameterTypes();
+   }
+
+   /**
+    * Use the constructor with exactly the declared column types. If a {@link ColumnResult} leaves its type open the
+    * only constructor whose other parameter types match is taken.
+    */
+   private Constructor<?> findConstructor(final Class<?> targetClass, final ColumnResult[] columns) {
+      Constructor<?> found = null;
+      for (final Constructor<?> candidate : targetClass.getDeclaredConstructors()) {
+         final Class<?>[] types = candidate.getParameterTypes();
+         if (types.length != columns.length) {
+            continue;
+         }
+         boolean matches = true;
+         for (int i = 0; i < types.length && matches; i++) {
+            matches = columns[i].type() == void.class || columns[i].type() == types[i];
+         }
+         if (matches) {
+            if (found != null) {
+               throw new RuntimeException("@SqlResultSetMapping " + name + " matches more than one constructor of "
+                  + targetClass.getName() + ", declare the type of each @ColumnResult");
+            }
+            found = candidate;
+         }
+      }
+      if (found == null) {
+         throw new RuntimeException("@SqlResultSetMapping " + name + " matches no constructor of " + targetClass.getName());
+      }
+      return found;
+   }
+
+   /**
+    * Map the rows of the result set, which must be positioned before the first row. The result set is consumed but
+    * not closed.
+    */
+   @SuppressWarnings("unchecked")
+   <R> List<R> process(final ResultSet resultSet) throws SQLException {
+      final int[] positions = resolvePositions(resultSet.getMetaData());
+      final List<R> results = new ArrayList<>();
+      final Object[] values = new Object[positions.length];
+      while (resultSet.next()) {
+         for (int i = 0; i < positions.length; i++) {
+            values[i] = coerce(resultSet.getObject(positions[i]), parameterTypes[i]);
+         }
+         try {
+            results.add((R) constructor.newInstance(values));
+         }
+         catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            throw new RuntimeException(e);
+         }
+      }
+      return results;
+   }
+
+   private int[] resolvePositions(final ResultSetMetaData metaData) throws SQLException {
+      final int[] positions = new int[columnNames.length];
+      final int columnCount = metaData.getColumnCount();
+      for (int i = 0; i < columnNames.length; i++) {
+         for (int colIdx = 1; colIdx <= columnCount && positions[i] == 0; colIdx++) {
+            if (columnNames[i].equalsIgnoreCase(metaData.getColumnLabel(colIdx))) {
+               positions[i] = colIdx;
+            }
+         }
+         if (positions[i] == 0) {
+            throw new RuntimeException("Column " + columnNames[i] + " of @SqlResultSetMapping " + name + " is not in the result");
+         }
+      }
+      return positions;
+   }
+
+   private static Object coerce(final Object value, final Class<?> type) throws SQLException {
+      if (value == null) {
+         if (!type.isPrimitive()) {
+            return null;
+         }
+         return type == boolean.class ? Boolean.FALSE : type == char.class ? (Object) '\0' : coerce(0, type);
+      }
+      if (type.isInstance(value)) {
+         return value;
+      }
+      if (value instanceof Number) {
+         final Number number = (Number) value;
+         if (type == int.class || type == Integer.class) {
+            return number.intValue();
+         }
+         if (type == long.class || type == Long.class) {
+            return number.longValue();
+         }
+         if (type == double.class || type == Double.class) {
+            return number.doubleValue();
+         }
+         if (type == float.class || type == Float.class) {
+            return number.floatValue();
+         }
+         if (type == short.class || type == Short.class) {
+            return number.shortValue();
+         }
+         if (type == byte.class || type == Byte.class) {
+            return number.byteValue();
+         }
+         if (type == boolean.class || type == Boolean.class) {
+            return number.intValue() != 0;
+         }
+         if (type == BigDecimal.class) {
+            return new BigDecimal(number.toString());
+         }
+         if (type == BigInteger.class) {
+            return new BigDecimal(number.toString()).toBigInteger();
+         }
+      }
+      if (value instanceof Boolean && type == boolean.class) {
+         return value;
+      }
+      if (value instanceof Character && type == char.class) {
+         return value;
+      }
+      if (type == String.class) {
+         if (value instanceof Clob) {
+            try {
+               return Introspected.readClob((Clob) value);
+            }
+            catch (IOException e) {
+               throw new RuntimeException(e);
+            }
+         }
+         return value.toString();
+      }
+      throw new RuntimeException("Cannot convert " + value.getClass().getName() + " to " + type.getName());
+   }
+}
@@ -0,0 +1,246 @@
+package com.zaxxer.q2o;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Raw rows spilled into a memory mapped temporary file. The file is mapped in segments of
+ * {@code com.zaxxer.q2o.spillSegmentSize} bytes (default 64 MB). A row never straddles two segments, so it can be
+ * decoded from a single buffer. Each value is written as a one byte type tag followed by its compact encoding. The file
+ * is deleted on {@link #close()}.
+ */
+final class RowSpillFile implements Closeable {
+
+   static final int SEGMENT_SIZE = Integer.getInteger("com.zaxxer.q2o.spillSegmentSize", 64 << 20);
+
+   private static final byte NULL = 0;
+   private static final byte STRING = 1;
+   private static final byte INTEGER = 2;
+   private static final byte LONG = 3;
+   private static final byte DOUBLE = 4;
+   private static final byte FLOAT = 5;
+   private static final byte SHORT = 6;
+   private static final byte BYTE = 7;
+   private static final byte BOOLEAN = 8;
+   private static final byte BIG_DECIMAL = 9;
+   private static final byte BIG_INTEGER = 10;
+   private static final byte TIMESTAMP = 11;
+   private static final byte DATE = 12;
+   private static final byte TIME = 13;
+   private static final byte BYTES = 14;
+   private static final byte UUID_VALUE = 15;
+   private static final byte SERIALIZED = 16;
+
+   private final FileChannel channel;
+   private final ArrayList<MappedByteBuffer> segments = new ArrayList<>();
+   private long[] rowPositions = new long[1024];
+   private int rowCount;
+   private ByteBuffer scratch = ByteBuffer.allocate(4096);
+
+   RowSpillFile() throws IOException {
+      final Path path = Files.createTempFile("q2o-spill", ".tmp");
+      channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.DELETE_ON_CLOSE);
+   }
+
+   int size() {
+      return rowCount;
+   }
+
+   void append(final Object[] row) throws IOException {
+      scratch.clear();
+      while (true) {
+         try {
+            for (final Object value : row) {
+               encode(scratch, value);
+            }
+            break;
+         }
+         catch (BufferOverflowException e) {
+            scratch = ByteBuffer.allocate(scratch.capacity() * 2);
+         }
+      }
+      scratch.flip();
+      final int length = scratch.remaining();
+      if (length > SEGMENT_SIZE) {
+         throw new IOException("Row of " + length + " bytes exceeds the spill segment size of " + SEGMENT_SIZE + " bytes");
+      }
+
+      MappedByteBuffer segment = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+      if (segment == null || segment.remaining() < length) {
+         segment = channel.map(FileChannel.MapMode.READ_WRITE, (long) segments.size() * SEGMENT_SIZE, SEGMENT_SIZE);
+         segments.add(segment);
+      }
+      if (rowCount == rowPositions.length) {
+         rowPositions = Arrays.copyOf(rowPositions, rowCount * 2);
+      }
+      rowPositions[rowCount++] = (long) (segments.size() - 1) * SEGMENT_SIZE + segment.position();
+      segment.put(scratch);
+   }
+
+   /**
+    * Safe to be called concurrently once all rows are appended.
+    */
+   Object[] read(final int rowIndex, final int columnCount) throws IOException {
+      if (rowIndex < 0 || rowIndex >= rowCount) {
+         throw new IndexOutOfBoundsException("Row " + rowIndex + ", size " + rowCount);
+      }
+      final long position = rowPositions[rowIndex];
+      final ByteBuffer buffer = segments.get((int) (position / SEGMENT_SIZE)).duplicate();
+      buffer.position((int) (position % SEGMENT_SIZE));
+      final Object[] row = new Object[columnCount];
+      for (int i = 0; i < columnCount; i++) {
+         row[i] = decode(buffer);
+      }
+      return row;
+   }
+
+   @Override
+   public void close() throws IOException {
+      segments.clear();
+      channel.close();
+   }
+
+   private static void encode(final ByteBuffer buffer, final Object value) throws IOException {
+      if (value == null) {
+         buffer.put(NULL);
+      }
+      else if (value instanceof String) {
+         putBytes(buffer.put(STRING), ((String) value).getBytes(StandardCharsets.UTF_8));
+      }
+      else if (value instanceof Integer) {
+         buffer.put(INTEGER).putInt((Integer) value);
+      }
+      else if (value instanceof Long) {
+         buffer.put(LONG).putLong((Long) value);
+      }
+      else if (value instanceof Double) {
+         buffer.put(DOUBLE).putDouble((Double) value);
+      }
+      else if (value instanceof Float) {
+         buffer.put(FLOAT).putFloat((Float) value);
+      }
+      else if (value instanceof Short) {
+         buffer.put(SHORT).putShort((Short) value);
+      }
+      else if (value instanceof Byte) {
+         buffer.put(BYTE).put((Byte) value);
+      }
+      else if (value instanceof Boolean) {
+         buffer.put(BOOLEAN).put((byte) ((Boolean) value ? 1 : 0));
+      }
+      else if (value instanceof BigDecimal) {
+         final BigDecimal decimal = (BigDecimal) value;
+         putBytes(buffer.put(BIG_DECIMAL).putInt(decimal.scale()), decimal.unscaledValue().toByteArray());
+      }
+      else if (value instanceof BigInteger) {
+         putBytes(buffer.put(BIG_INTEGER), ((BigInteger) value).toByteArray());
+      }
+      else if (value instanceof Timestamp) {
+         final Timestamp timestamp = (Timestamp) value;
+         buffer.put(TIMESTAMP).putLong(timestamp.getTime()).putInt(timestamp.getNanos());
+      }
+      else if (value instanceof java.sql.Date) {
+         buffer.put(DATE).putLong(((java.sql.Date) value).getTime());
+      }
+      else if (value instanceof Time) {
+         buffer.put(TIME).putLong(((Time) value).getTime());
+      }
+      else if (value instanceof byte[]) {
+         putBytes(buffer.put(BYTES), (byte[]) value);
+      }
+      else if (value instanceof UUID) {
+         final UUID uuid = (UUID) value;
+         buffer.put(UUID_VALUE).putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits());
+      }
+      else if (value instanceof Serializable) {
+         final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+         try (final ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(value);
+         }
+         putBytes(buffer.put(SERIALIZED), bytes.toByteArray());
+      }
+      else {
+         throw new IOException("Cannot spill column value of type " + value.getClass().getName());
+      }
+   }
+
+   private static void putBytes(final ByteBuffer buffer, final byte[] bytes) {
+      buffer.putInt(bytes.length).put(bytes);
+   }
+
+   private static byte[] getBytes(final ByteBuffer buffer) {
+      final byte[] bytes = new byte[buffer.getInt()];
+      buffer.get(bytes);
+      return bytes;
+   }
+
+   private static Object decode(final ByteBuffer buffer) throws IOException {
+      final byte tag = buffer.get();
+      switch (tag) {
+      case NULL:
+         return null;
+      case STRING:
+         return new String(getBytes(buffer), StandardCharsets.UTF_8);
+      case INTEGER:
+         return buffer.getInt();
+      case LONG:
+         return buffer.getLong();
+      case DOUBLE:
+         return buffer.getDouble();
+      case FLOAT:
+         return buffer.getFloat();
+      case SHORT:
+         return buffer.getShort();
+      case BYTE:
+         return buffer.get();
+      case BOOLEAN:
+         return buffer.get() != 0;
+      case BIG_DECIMAL:
+         final int scale = buffer.getInt();
+         return new BigDecimal(new BigInteger(getBytes(buffer)), scale);
+      case BIG_INTEGER:
+         return new BigInteger(getBytes(buffer));
+      case TIMESTAMP:
+         final Timestamp timestamp = new Timestamp(buffer.getLong());
+         timestamp.setNanos(buffer.getInt());
+         return timestamp;
+      case DATE:
+         return new java.sql.Date(buffer.getLong());
+      case TIME:
+         return new Time(buffer.getLong());
+      case BYTES:
+         return getBytes(buffer);
+      case UUID_VALUE:
+         return new UUID(buffer.getLong(), buffer.getLong());
+      case SERIALIZED:
+         try (final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(getBytes(buffer)))) {
+            return in.readObject();
+         }
+         catch (ClassNotFoundException e) {
+            throw new IOException(e);
+         }
+      default:
+         throw new IOException("Corrupt spill file, unknown type tag " + tag);
+      }
+   }
+}
@@ -0,0 +1,91 @@
+package com.zaxxer.q2o;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A read-only result list whose rows beyond a heap budget live in a memory mapped temporary file. Objects of rows kept
+ * on the heap are mapped once, objects of spilled rows are mapped anew on every access, so hold on to them as long as
+ * they are needed instead of calling {@link #get(int)} repeatedly.
+ * <p>
+ * Every spilled row becomes one object, so spilling is meant for entities read from a single table. Close the list to
+ * delete the temporary file.
+ *
+ * @param <T> the type of the objects
+ * @see Q2ObjList#fromClauseSpilling(Class, long, String, Object...)
+ */
+public final class SpillingList<T> extends AbstractList<T> implements RandomAccess, AutoCloseable {
+
+   private final Class<T> clazz;
+   private final List<T> heapObjects;
+   private final OrmReader.RowBuffer columns;
+   private final RowSpillFile spillFile;
+
+   SpillingList(final Class<T> clazz, final OrmReader.RowBuffer rowBuffer, final RowSpillFile spillFile) {
+      this.clazz = clazz;
+      try {
+         this.heapObjects = OrmReader.rowBufferToList(rowBuffer, clazz, ResultGuard.UNLIMITED);
+      }
+      catch (RuntimeException e) {
+         if (spillFile != null) {
+            try {
+               spillFile.close();
+            }
+            catch (IOException ignored) {
+               // the original exception is more interesting
+            }
+         }
+         throw e;
+      }
+      rowBuffer.rows.clear();
+      this.columns = rowBuffer;
+      this.spillFile = spillFile;
+   }
+
+   /**
+    * @return true if rows were written to the temporary file because the result exceeded the heap budget.
+    */
+   public boolean isSpilled() {
+      return spillFile != null;
+   }
+
+   @Override
+   public T get(final int index) {
+      if (index < heapObjects.size()) {
+         return heapObjects.get(index);
+      }
+      if (spillFile == null) {
+         throw new IndexOutOfBoundsException("Index " + index + ", size " + size());
+      }
+      try {
+         final OrmReader.RowBuffer single = new OrmReader.RowBuffer(columns.columnNames, columns.tableNames);
+         single.rows.add(spillFile.read(index - heapObjects.size(), columns.columnNames.length));
+         return OrmReader.rowBufferToList(single, clazz, ResultGuard.UNLIMITED).get(0);
+      }
+      catch (IOException e) {
+         throw new RuntimeException(e);
+      }
+   }
+
+   @Override
+   public int size() {
+      return heapObjects.size() + (spillFile != null ? spillFile.size() : 0);
+   }
+
+   /**
+    * Deletes the temporary file. Spilled objects can no longer be accessed afterwards.
+    */
+   @Override
+   public void close() {
+      if (spillFile != null) {
+         try {
+            spillFile.close();
+         }
+         catch (IOException e) {
+            throw new RuntimeException(e);
+         }
+      }
+   }
+}
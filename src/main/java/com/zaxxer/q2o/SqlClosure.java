@@ -101,6 +101,23 @@ public class SqlClosure<T>
       defaultDataSource = ds;
    }
 
+   /**
+    * A connection of the default DataSource for use beyond a closure, e.g. by a cursor. Like {@link #execute()} it
+    * joins the current transaction: within an active transaction the DataSource provided by the transaction manager
+    * returns the transaction's connection, and closing it only closes the statements created through it. Unlike
+    * {@link #execute()} no transaction is started, without one the connection is in auto-commit mode.
+    *
+    * @return a connection, close it when done
+    * @throws RuntimeException if the default DataSource has not been set
+    */
+   static Connection getConnection() throws SQLException
+   {
+      if (defaultDataSource == null) {
+         throw new RuntimeException("No default DataSource has been set");
+      }
+      return ConnectionProxy.wrapConnection(defaultDataSource.getConnection());
+   }
+
    /**
     * Execute a lambda {@code SqlFunction} closure.
     *
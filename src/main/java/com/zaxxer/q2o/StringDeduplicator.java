@@ -0,0 +1,34 @@
+package com.zaxxer.q2o;
+
+/**
+ * A bounded, lock free intern table for the values of a {@link Deduplicate} annotated attribute.
+ * <p>
+ * Each value hashes to exactly one slot. If the slot holds an equal String that one is returned, otherwise the value
+ * takes over the slot. Races between threads only cost a missed deduplication: Strings are immutable and safely
+ * published through their final fields, so a slot never exposes a partially constructed String.
+ */
+final class StringDeduplicator {
+
+   private final String[] table;
+   private final int mask;
+
+   StringDeduplicator(final int maxEntries) {
+      if (maxEntries < 1) {
+         throw new IllegalArgumentException("maxEntries must be greater than zero");
+      }
+      final int size = maxEntries == 1 ? 1 : Integer.highestOneBit(Math.min(maxEntries, 1 << 30) - 1) << 1;
+      table = new String[size];
+      mask = size - 1;
+   }
+
+   String deduplicate(final String value) {
+      final int hash = value.hashCode();
+      final int idx = (hash ^ (hash >>> 16)) & mask;
+      final String cached = table[idx];
+      if (value.equals(cached)) {
+         return cached;
+      }
+      table[idx] = value;
+      return value;
+   }
+}
@@ -0,0 +1,172 @@
+package com.zaxxer.q2o;
+
+import javax.persistence.Version;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads the rows of an entity changed since the last read. Changes are detected by a watermark attribute that grows
+ * with every change, e.g. an {@code updated_at} timestamp, a {@link Version} column or a monotonic id. Rows are read
+ * in batches ordered by (watermark, id), so rows sharing a watermark value are neither skipped nor read twice even if a
+ * batch ends between them.
+ * <pre>
+ * WatermarkReader&lt;Customer&gt; reader = new WatermarkReader&lt;&gt;(Customer.class, "updatedAt", 1000);
+ * reader.poll(index::put);   // reads everything
+ * ...
+ * reader.poll(index::put);   // reads only the changes
+ * </pre>
+ * The entity must have a single @Id column. Rows whose watermark is NULL are never read. A watermark written by a
+ * transaction that commits after a later watermark has been read is missed, so derive it from a source that is
+ * ordered by commit, or poll with some overlap by {@link #resume(Object, Object) resuming} from an earlier position.
+ * <p>
+ * Instances are thread safe, concurrent polls are serialized.
+ *
+ * @param <T> the type of the entity
+ */
+public final class WatermarkReader<T> {
+
+   private final Class<T> clazz;
+   private final Introspected introspected;
+   private final AttributeInfo watermarkInfo;
+   private final boolean isWatermarkId;
+   private final int batchSize;
+   private final String initialClause;
+   private final String nextClause;
+
+   private Object watermark;
+   private Object lastId;
+
+   /**
+    * Use the attribute annotated with {@link Version} as watermark, or the id if there is none.
+    *
+    * @param clazz the entity class
+    * @param batchSize the maximum number of rows read per query
+    */
+   public WatermarkReader(final Class<T> clazz, final int batchSize) {
+      this(clazz, null, batchSize);
+   }
+
+   /**
+    * @param clazz the entity class
+    * @param watermarkAttribute the name of the watermark attribute (not the column)
+    * @param batchSize the maximum number of rows read per query
+    */
+   public WatermarkReader(final Class<T> clazz, final String watermarkAttribute, final int batchSize) {
+      if (batchSize < 1) {
+         throw new IllegalArgumentException("batchSize must be greater than zero");
+      }
+      this.clazz = clazz;
+      this.batchSize = batchSize;
+      this.introspected = Introspector.getIntrospected(clazz);
+      final List<AttributeInfo> idFcInfos = introspected.getIdFcInfos();
+      if (idFcInfos.size() != 1) {
+         throw new RuntimeException("WatermarkReader requires a single @Id column: " + clazz.getName());
+      }
+      final AttributeInfo idInfo = idFcInfos.get(0);
+
+      AttributeInfo info = watermarkAttribute != null ? introspected.getFieldColumnInfoForProperty(watermarkAttribute) : findVersionInfo();
+      if (info == null) {
+         if (watermarkAttribute != null) {
+            throw new IllegalArgumentException("No such attribute in " + clazz.getName() + ": " + watermarkAttribute);
+         }
+         info = idInfo;
+      }
+      this.watermarkInfo = info;
+      this.isWatermarkId = info == idInfo;
+
+      final String tableName = introspected.getDelimitedTableName();
+      final String idColumn = tableName + '.' + idInfo.getDelimitedColumnName();
+      final String watermarkColumn = tableName + '.' + info.getDelimitedColumnName();
+      if (isWatermarkId) {
+         initialClause = "1=1 ORDER BY " + idColumn;
+         nextClause = idColumn + " > ? ORDER BY " + idColumn;
+      }
+      else {
+         initialClause = watermarkColumn + " IS NOT NULL ORDER BY " + watermarkColumn + ", " + idColumn;
+         nextClause = "(" + watermarkColumn + " > ? OR (" + watermarkColumn + " = ? AND " + idColumn + " > ?)) ORDER BY "
+            + watermarkColumn + ", " + idColumn;
+      }
+   }
+
+   private AttributeInfo findVersionInfo() {
+      for (final AttributeInfo info : introspected.getSelectableFcInfos()) {
+         if (info.field.isAnnotationPresent(Version.class)) {
+            return info;
+         }
+      }
+      return null;
+   }
+
+   /**
+    * Hand all rows changed since the last poll to the consumer, in (watermark, id) order. The first poll reads all
+    * rows unless the reader was {@link #resume(Object, Object) resumed}.
+    *
+    * @param consumer receives the changed entities
+    * @return the number of entities read
+    */
+   public int poll(final Consumer<? super T> consumer) {
+      return SqlClosure.sqlExecute(c -> poll(c, consumer));
+   }
+
+   /**
+    * @see #poll(Consumer)
+    */
+   public synchronized int poll(final Connection connection, final Consumer<? super T> consumer) throws SQLException {
+      int count = 0;
+      List<T> batch;
+      do {
+         batch = readBatch(connection);
+         for (final T entity : batch) {
+            consumer.accept(entity);
+            lastId = introspected.getActualIds(entity)[0];
+            watermark = isWatermarkId ? lastId : introspected.get(entity, watermarkInfo);
+            count++;
+         }
+      } while (batch.size() == batchSize);
+      return count;
+   }
+
+   private List<T> readBatch(final Connection connection) throws SQLException {
+      final Object[] args;
+      final String clause;
+      if (watermark == null) {
+         clause = initialClause;
+         args = new Object[0];
+      }
+      else {
+         clause = nextClause;
+         args = isWatermarkId ? new Object[] {watermark} : new Object[] {watermark, watermark, lastId};
+      }
+      final PreparedStatement stmt = connection.prepareStatement(OrmReader.generateSelectFromClause(clazz, clause));
+      stmt.setMaxRows(batchSize);
+      return OrmReader.statementToList(stmt, clazz, ResultGuard.UNLIMITED, args);
+   }
+
+   /**
+    * Continue after the specified position, e.g. one persisted from {@link #getWatermark()} and {@link #getLastId()}.
+    *
+    * @param watermark the watermark of the last row read, null to start from scratch
+    * @param lastId the id of the last row read
+    */
+   public synchronized void resume(final Object watermark, final Object lastId) {
+      this.watermark = watermark;
+      this.lastId = lastId;
+   }
+
+   /**
+    * @return the watermark of the last row read as bound to the database, or null before the first row
+    */
+   public synchronized Object getWatermark() {
+      return watermark;
+   }
+
+   /**
+    * @return the id of the last row read, or null before the first row
+    */
+   public synchronized Object getLastId() {
+      return lastId;
+   }
+}
@@ -48,6 +48,16 @@ public final class q2o {
       return initializeTxNone(dataSource);
    }
 
+   /**
+    * Limit the lists of entities materialized by q2o, e.g. to protect a node against an accidental unbounded select.
+    * See {@link ResultGuard} for the methods covered.
+    *
+    * @param resultGuard the guard, {@link ResultGuard#UNLIMITED} to switch it off
+    */
+   public static void setResultGuard(ResultGuard resultGuard) {
+      OrmReader.setResultGuard(resultGuard);
+   }
+
    /**
     * You can reset q2o to a fresh state if desired.
     * E.g. if you want to call another initializeXXX method.
@@ -56,5 +66,6 @@ public final class q2o {
       SqlClosure.setDefaultDataSource(null);
       TransactionHelper.setUserTransaction(null);
       TransactionHelper.setTransactionManager(null);
+      OrmReader.setResultGuard(ResultGuard.UNLIMITED);
    }
 }
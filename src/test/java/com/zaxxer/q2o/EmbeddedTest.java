@@ -0,0 +1,165 @@
+package com.zaxxer.q2o;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.sansorm.TestUtils;
+
+import java.math.BigDecimal;
+
+import javax.persistence.AttributeOverride;
+import javax.persistence.AttributeOverrides;
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import javax.persistence.Embedded;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import static org.junit.Assert.*;
+
+public class EmbeddedTest {
+
+   @Embeddable
+   public static class Money {
+      BigDecimal amount;
+      String currency;
+   }
+
+   @Embeddable
+   public static class Position {
+      double lat;
+      double lon;
+   }
+
+   @Embeddable
+   public static class Address {
+      String street;
+      @Column(name = "zip_code")
+      String zip;
+      Position position;
+   }
+
+   @Table(name = "embedded_test")
+   public static class Shipment {
+      @Id @GeneratedValue
+      int id;
+      @Embedded
+      Money price;
+      @AttributeOverride(name = "street", column = @Column(name = "origin_street"))
+      Address origin;
+      @Embedded
+      @AttributeOverrides({
+         @AttributeOverride(name = "street", column = @Column(name = "dest_street")),
+         @AttributeOverride(name = "zip", column = @Column(name = "dest_zip")),
+         @AttributeOverride(name = "position.lat", column = @Column(name = "dest_lat")),
+         @AttributeOverride(name = "position.lon", column = @Column(name = "dest_lon"))
+      })
+      Address destination;
+   }
+
+   @Embeddable
+   public static class Range {
+      final int lower;
+      final int upper;
+
+      public Range(int lower, int upper) {
+         this.lower = lower;
+         this.upper = upper;
+      }
+   }
+
+   @Table(name = "embedded_final_test")
+   public static class Reservation {
+      @Id
+      int id;
+      @Embedded
+      Range range;
+   }
+
+   @BeforeClass
+   public static void beforeClass() throws Exception {
+      q2o.initializeTxNone(TestUtils.makeH2DataSource());
+   }
+
+   @AfterClass
+   public static void afterClass() throws Exception {
+      q2o.deinitialize();
+   }
+
+   @Before
+   public void setUp() {
+      Q2Sql.executeUpdate("CREATE TABLE embedded_test ("
+         + " id INT NOT NULL IDENTITY PRIMARY KEY"
+         + ", amount DECIMAL(10, 2), currency VARCHAR(3)"
+         + ", origin_street VARCHAR(32), zip_code VARCHAR(8), lat DOUBLE, lon DOUBLE"
+         + ", dest_street VARCHAR(32), dest_zip VARCHAR(8), dest_lat DOUBLE, dest_lon DOUBLE"
+         + ")");
+   }
+
+   @After
+   public void tearDown() {
+      Q2Sql.executeUpdate("drop table embedded_test");
+   }
+
+   @Test
+   public void columnNames() {
+      Introspected introspected = Introspector.getIntrospected(Shipment.class);
+      assertEquals("amount", introspected.getColumnNameForProperty("price.amount"));
+      assertEquals("origin_street", introspected.getColumnNameForProperty("origin.street"));
+      assertEquals("zip_code", introspected.getColumnNameForProperty("origin.zip"));
+      assertEquals("lat", introspected.getColumnNameForProperty("origin.position.lat"));
+      assertEquals("dest_zip", introspected.getColumnNameForProperty("destination.zip"));
+      assertEquals("dest_lon", introspected.getColumnNameForProperty("destination.position.lon"));
+   }
+
+   @Test
+   public void insertReadUpdate() {
+      Shipment shipment = new Shipment();
+      shipment.price = new Money();
+      shipment.price.amount = new BigDecimal("12.50");
+      shipment.price.currency = "EUR";
+      shipment.destination = new Address();
+      shipment.destination.street = "Main Street 1";
+      shipment.destination.zip = "12345";
+      shipment.destination.position = new Position();
+      shipment.destination.position.lat = 52.5;
+      shipment.destination.position.lon = 13.4;
+      Q2Obj.insert(shipment);
+
+      assertEquals(1, Q2Sql.numberFromSql("SELECT COUNT(*) FROM embedded_test WHERE currency = 'EUR' AND dest_lat = 52.5").intValue());
+
+      Shipment read = Q2Obj.byId(Shipment.class, shipment.id);
+      assertEquals(0, new BigDecimal("12.50").compareTo(read.price.amount));
+      assertEquals("EUR", read.price.currency);
+      assertEquals("Main Street 1", read.destination.street);
+      assertEquals("12345", read.destination.zip);
+      assertEquals(52.5, read.destination.position.lat, 0);
+      assertEquals(13.4, read.destination.position.lon, 0);
+      // all columns of the embeddable are NULL
+      assertNull(read.origin);
+
+      read.origin = new Address();
+      read.origin.street = "Harbour Road";
+      read.destination.position.lon = 13.5;
+      Q2Obj.update(read);
+
+      Shipment updated = Q2Obj.byId(Shipment.class, shipment.id);
+      assertEquals("Harbour Road", updated.origin.street);
+      assertNull(updated.origin.zip);
+      assertEquals(13.5, updated.destination.position.lon, 0);
+   }
+
+   @Test
+   public void finalFieldsAreRejected() {
+      try {
+         Introspector.getIntrospected(Reservation.class);
+         fail("immutable @Embeddable accepted");
+      }
+      catch (RuntimeException e) {
+         assertTrue(e.getMessage(), e.getMessage().contains("@Embeddable " + Range.class.getName() + " has final field lower"));
+      }
+   }
+}
@@ -0,0 +1,169 @@
+package com.zaxxer.q2o;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.sansorm.TestUtils;
+
+import java.util.List;
+
+import javax.persistence.Column;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.ManyToOne;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
+import javax.persistence.NamedEntityGraphs;
+import javax.persistence.NamedSubgraph;
+import javax.persistence.OneToMany;
+import javax.persistence.Table;
+
+import static org.junit.Assert.*;
+
+public class EntityGraphTest {
+
+   @Table(name = "graph_customer")
+   @NamedEntityGraphs({
+      @NamedEntityGraph(name = "withOrders", attributeNodes = @NamedAttributeNode("orders")),
+      @NamedEntityGraph(name = "withOrderLines",
+         attributeNodes = @NamedAttributeNode(value = "orders", subgraph = "lines"),
+         subgraphs = @NamedSubgraph(name = "lines", attributeNodes = @NamedAttributeNode("lines")))
+   })
+   public static class Customer {
+      @Id
+      int id;
+      String name;
+      @OneToMany(mappedBy = "customer")
+      List<Order> orders;
+   }
+
+   @Table(name = "graph_order")
+   @NamedEntityGraph(name = "withCustomer", attributeNodes = @NamedAttributeNode("customer"))
+   public static class Order {
+      @Id
+      int id;
+      @Column(name = "customer_id")
+      int customerId;
+      @ManyToOne
+      @JoinColumn(name = "customer_id")
+      Customer customer;
+      @OneToMany
+      @JoinColumn(name = "order_id", table = "graph_line")
+      List<Line> lines;
+   }
+
+   @Table(name = "graph_line")
+   public static class Line {
+      @Id
+      int id;
+      String product;
+   }
+
+   @NamedEntityGraph(name = "broken", attributeNodes = @NamedAttributeNode("unknown"))
+   @Table(name = "graph_customer")
+   public static class BrokenGraph {
+      @Id
+      int id;
+   }
+
+   @BeforeClass
+   public static void beforeClass() throws Exception {
+      q2o.initializeTxNone(TestUtils.makeH2DataSource());
+   }
+
+   @AfterClass
+   public static void afterClass() throws Exception {
+      q2o.deinitialize();
+   }
+
+   @Before
+   public void setUp() {
+      Q2Sql.executeUpdate("CREATE TABLE graph_customer (id INT PRIMARY KEY, name VARCHAR(32))");
+      Q2Sql.executeUpdate("CREATE TABLE graph_order (id INT PRIMARY KEY, customer_id BIGINT)");
+      Q2Sql.executeUpdate("CREATE TABLE graph_line (id INT PRIMARY KEY, order_id INT, product VARCHAR(32))");
+      // 700 customers with one order each, customer 1 has a second order; more keys than fit into one query
+      Q2Sql.executeUpdate("insert into graph_customer select x, 'customer ' || x from system_range(1, 700)");
+      Q2Sql.executeUpdate("insert into graph_order select x, x from system_range(1, 700)");
+      Q2Sql.executeUpdate("insert into graph_order values (701, 1)");
+      Q2Sql.executeUpdate("insert into graph_line select x, 1 + mod(x, 2) * 700, 'product ' || x from system_range(1, 4)");
+   }
+
+   @After
+   public void tearDown() {
+      Q2Sql.executeUpdate("drop table graph_line");
+      Q2Sql.executeUpdate("drop table graph_order");
+      Q2Sql.executeUpdate("drop table graph_customer");
+   }
+
+   @Test
+   public void manyToOne() {
+      List<Order> orders = Q2ObjList.fromClauseWithGraph(Order.class, "withCustomer", "1=1 ORDER BY id");
+      assertEquals(701, orders.size());
+      for (Order order : orders) {
+         assertNotNull(order.customer);
+         assertEquals(order.customerId, order.customer.id);
+         assertNull(order.lines);
+      }
+      // both orders of customer 1 refer to the same object
+      assertSame(orders.get(0).customer, orders.get(700).customer);
+      assertEquals("customer 1", orders.get(700).customer.name);
+   }
+
+   @Test
+   public void oneToManyMappedBy() {
+      List<Customer> customers = Q2ObjList.fromClauseWithGraph(Customer.class, "withOrders", "1=1 ORDER BY id");
+      assertEquals(700, customers.size());
+      assertEquals(2, customers.get(0).orders.size());
+      for (Customer customer : customers.subList(1, 700)) {
+         assertEquals(1, customer.orders.size());
+         assertEquals(customer.id, customer.orders.get(0).id);
+      }
+      assertNull(customers.get(0).orders.get(0).lines);
+   }
+
+   @Test
+   public void subgraph() {
+      List<Customer> customers = Q2ObjList.fromClauseWithGraph(Customer.class, "withOrderLines", "id <= ?", 2);
+      assertEquals(2, customers.size());
+      Customer first = customers.get(0);
+      int lineCount = 0;
+      for (Order order : first.orders) {
+         assertNotNull(order.lines);
+         lineCount += order.lines.size();
+      }
+      assertEquals(4, lineCount);
+      assertTrue(customers.get(1).orders.get(0).lines.isEmpty());
+   }
+
+   @Test
+   public void fetchGraph() {
+      List<Order> orders = Q2ObjList.fromSelect(Order.class, "SELECT * FROM graph_order WHERE id = ?", 701);
+      assertNull(orders.get(0).customer);
+      Q2ObjList.fetchGraph(Order.class, orders, "withCustomer");
+      assertEquals(1, orders.get(0).customer.id);
+   }
+
+   @Test
+   public void unknownGraph() {
+      try {
+         Q2ObjList.fromClauseWithGraph(Order.class, "unknown", null);
+         fail();
+      }
+      catch (RuntimeException e) {
+         assertTrue(e.getMessage().contains("No @NamedEntityGraph unknown"));
+      }
+   }
+
+   @Test
+   public void unknownAttribute() {
+      try {
+         Q2ObjList.fromClauseWithGraph(BrokenGraph.class, "broken", null);
+         fail();
+      }
+      catch (RuntimeException e) {
+         assertTrue(e.getMessage().contains("unknown attribute unknown"));
+      }
+   }
+}
@@ -0,0 +1,111 @@
+package com.zaxxer.q2o;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.sansorm.TestUtils;
+
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.JoinTable;
+import javax.persistence.ManyToMany;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
+import javax.persistence.Table;
+
+import static org.junit.Assert.*;
+
+public class ManyToManyTest {
+
+   @Table(name = "m2m_article")
+   @NamedEntityGraph(name = "withTags", attributeNodes = @NamedAttributeNode("tags"))
+   public static class Article {
+      @Id
+      int id;
+      String title;
+      @ManyToMany
+      @JoinTable(name = "m2m_article_tag",
+         joinColumns = @JoinColumn(name = "article_id"),
+         inverseJoinColumns = @JoinColumn(name = "tag_id"))
+      Set<Tag> tags;
+   }
+
+   @Table(name = "m2m_tag")
+   public static class Tag {
+      @Id
+      int id;
+      String label;
+      @ManyToMany(mappedBy = "tags")
+      List<Article> articles;
+   }
+
+   @BeforeClass
+   public static void beforeClass() throws Exception {
+      q2o.initializeTxNone(TestUtils.makeH2DataSource());
+   }
+
+   @AfterClass
+   public static void afterClass() throws Exception {
+      q2o.deinitialize();
+   }
+
+   @Before
+   public void setUp() {
+      Q2Sql.executeUpdate("CREATE TABLE m2m_article (id INT PRIMARY KEY, title VARCHAR(32))");
+      Q2Sql.executeUpdate("CREATE TABLE m2m_tag (id INT PRIMARY KEY, label VARCHAR(32))");
+      Q2Sql.executeUpdate("CREATE TABLE m2m_article_tag (article_id INT, tag_id INT, PRIMARY KEY (article_id, tag_id))");
+      Q2Sql.executeUpdate("insert into m2m_article select x, 'article ' || x from system_range(1, 600)");
+      Q2Sql.executeUpdate("insert into m2m_tag select x, 'tag ' || x from system_range(1, 3)");
+      // every article has tag 1, even articles also tag 2, article 600 has no tags
+      Q2Sql.executeUpdate("insert into m2m_article_tag select x, 1 from system_range(1, 599)");
+      Q2Sql.executeUpdate("insert into m2m_article_tag select x, 2 from system_range(1, 599) where mod(x, 2) = 0");
+   }
+
+   @After
+   public void tearDown() {
+      Q2Sql.executeUpdate("drop table m2m_article_tag");
+      Q2Sql.executeUpdate("drop table m2m_tag");
+      Q2Sql.executeUpdate("drop table m2m_article");
+   }
+
+   @Test
+   public void owningSide() {
+      List<Article> articles = Q2ObjList.fromClauseWithGraph(Article.class, "withTags", "1=1 ORDER BY id");
+      assertEquals(600, articles.size());
+      assertEquals(1, articles.get(0).tags.size());
+      assertEquals(2, articles.get(1).tags.size());
+      assertTrue(articles.get(599).tags.isEmpty());
+      // related entities are shared, not read per article
+      assertSame(articles.get(0).tags.iterator().next(), articles.get(2).tags.iterator().next());
+      TreeSet<String> labels = new TreeSet<>();
+      articles.get(1).tags.forEach(tag -> labels.add(tag.label));
+      assertEquals("[tag 1, tag 2]", labels.toString());
+   }
+
+   @Test
+   public void inverseSide() {
+      List<Tag> tags = Q2ObjList.fromClause(Tag.class, "1=1 ORDER BY id");
+      Q2ObjList.fetchRelationship(Tag.class, tags, "articles");
+      assertEquals(599, tags.get(0).articles.size());
+      assertEquals(299, tags.get(1).articles.size());
+      assertTrue(tags.get(2).articles.isEmpty());
+   }
+
+   @Test
+   public void unknownRelationship() {
+      List<Tag> tags = Q2ObjList.fromClause(Tag.class, null);
+      try {
+         Q2ObjList.fetchRelationship(Tag.class, tags, "label");
+         fail();
+      }
+      catch (RuntimeException e) {
+         assertEquals("No relationship label on " + Tag.class.getName(), e.getMessage());
+      }
+   }
+}
@@ -0,0 +1,97 @@
+package com.zaxxer.q2o;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.sansorm.TestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import javax.persistence.Column;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import static org.junit.Assert.*;
+
+public class Q2ExportTest {
+
+   public enum Status { OPEN, CLOSED }
+
+   @Table(name = "export_test")
+   public static class ExportItem {
+      @Id
+      int id;
+      @Column(name = "item_name")
+      String name;
+      @Enumerated(EnumType.ORDINAL)
+      Status status;
+      Double price;
+   }
+
+   @BeforeClass
+   public static void beforeClass() throws Exception {
+      q2o.initializeTxNone(TestUtils.makeH2DataSource());
+   }
+
+   @AfterClass
+   public static void afterClass() throws Exception {
+      q2o.deinitialize();
+   }
+
+   @Before
+   public void setUp() {
+      Q2Sql.executeUpdate("CREATE TABLE export_test (id INT PRIMARY KEY, item_name VARCHAR(64), status INT, price DOUBLE)");
+      Q2Sql.executeUpdate("insert into export_test values (1, 'plain', 0, 1.5), (2, 'with, comma and \"quote\"', 1, NULL), (3, NULL, NULL, 3)");
+   }
+
+   @After
+   public void tearDown() {
+      Q2Sql.executeUpdate("drop table export_test");
+   }
+
+   @Test
+   public void csv() {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      assertEquals(3, Q2Export.toCsv(ExportItem.class, Channels.newChannel(out), "1=1 ORDER BY id"));
+      String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\r\n");
+      assertEquals(4, lines.length);
+      assertEquals("id,name,status,price", lines[0].toLowerCase());
+      assertEquals("1,plain,OPEN,1.5", lines[1]);
+      assertEquals("2,\"with, comma and \"\"quote\"\"\",CLOSED,", lines[2]);
+      assertEquals("3,,,3.0", lines[3]);
+   }
+
+   @Test
+   public void jsonLines() throws Exception {
+      Path path = Files.createTempFile("q2o-export", ".jsonl");
+      try {
+         assertEquals(2, Q2Export.toJsonLines(ExportItem.class, path, "id > ? ORDER BY id", 1));
+         List<String> lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+         assertEquals(2, lines.size());
+         assertEquals("{\"id\":2,\"name\":\"with, comma and \\\"quote\\\"\",\"status\":\"CLOSED\",\"price\":null}", lines.get(0));
+         assertEquals("{\"id\":3,\"name\":null,\"status\":null,\"price\":3.0}", lines.get(1));
+      }
+      finally {
+         Files.delete(path);
+      }
+   }
+
+   @Test
+   public void largeExportWithMultiByteCharacters() {
+      Q2Sql.executeUpdate("insert into export_test select x + 3, 'grüße €' || x, 0, x from system_range(1, 20000)");
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      assertEquals(20003, Q2Export.toJsonLines(ExportItem.class, Channels.newChannel(out), null));
+      String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n");
+      assertEquals(20003, lines.length);
+      assertTrue(lines[20002].contains("\"grüße €20000\""));
+   }
+}
@@ -1,12 +1,33 @@
 package com.zaxxer.q2o;
 
+import com.zaxxer.q2o.entities.CompositeKey;
 import org.h2.jdbcx.JdbcDataSource;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.sansorm.TestUtils;
 
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.persistence.ColumnResult;
+import javax.persistence.ConstructorResult;
+import javax.persistence.GeneratedValue;
 import javax.persistence.Id;
+import javax.persistence.NamedNativeQueries;
+import javax.persistence.NamedNativeQuery;
+import javax.persistence.SqlResultSetMapping;
+import javax.persistence.Table;
 import javax.sql.DataSource;
 
 import static org.junit.Assert.*;
@@ -36,6 +57,92 @@ public class Q2ObjListTest {
       String note;
    }
 
+   @Table(name = "mytest")
+   public static class MyLongTest {
+      @Id
+      long id;
+      String note;
+   }
+
+   @Table(name = "mytest")
+   public static class MyBigIntegerTest {
+      @Id
+      BigInteger id;
+      String note;
+   }
+
+   @Table(name = "mytest")
+   public static class MyBigDecimalTest {
+      @Id
+      BigDecimal id;
+      String note;
+   }
+
+   @Table(name = "mytest")
+   public static class MyDeduplicatedTest {
+      @Id
+      int id;
+      @Deduplicate
+      String note;
+   }
+
+   @Table(name = "mytest")
+   @NamedNativeQueries({
+      @NamedNativeQuery(name = "byNote", query = "SELECT id, note FROM mytest WHERE note = ? ORDER BY id"),
+      @NamedNativeQuery(name = "byNotes", query = "SELECT id, note FROM mytest WHERE note IN (?) ORDER BY id"),
+      @NamedNativeQuery(name = "all", query = "SELECT * FROM mytest ORDER BY id DESC")
+   })
+   public static class MyNamedQueryTest {
+      @Id
+      int id;
+      String note;
+   }
+
+   @Table(name = "mytest")
+   @NamedNativeQueries({
+      @NamedNativeQuery(name = "noteCounts", query = "SELECT note, COUNT(*) cnt FROM mytest GROUP BY note ORDER BY note", resultSetMapping = "NoteCount"),
+      @NamedNativeQuery(name = "noteCountsOf", query = "SELECT note, COUNT(*) cnt FROM mytest WHERE note IN (?) GROUP BY note ORDER BY note", resultSetMapping = "NoteCount")
+   })
+   @SqlResultSetMapping(name = "NoteCount", classes = @ConstructorResult(targetClass = NoteCount.class, columns = {
+      @ColumnResult(name = "note"), @ColumnResult(name = "cnt", type = int.class)
+   }))
+   public static class MyProjectionTest {
+      @Id
+      int id;
+      String note;
+   }
+
+   public static class NoteCount {
+      final String note;
+      final int count;
+
+      NoteCount(String note, int count) {
+         this.note = note;
+         this.count = count;
+      }
+   }
+
+   @Table(name = "mytest")
+   public static class MyUpdateTest {
+      @Id
+      int id;
+      String note;
+      String status;
+   }
+
+   @Table(name = "mytest")
+   public static class MyGeneratedTest {
+      @Id @GeneratedValue
+      int id;
+      String note;
+   }
+
+   @NamedNativeQuery(name = "broken", query = "SELECT 1", resultClass = String.class)
+   public static class MyBrokenNamedQueryTest {
+      @Id
+      int id;
+   }
+
    @Test
    public void deleteByWhereClause() {
       try {
@@ -54,4 +161,542 @@ public class Q2ObjListTest {
       }
 
    }
+
+   @Test
+   public void parallelScan() {
+      try {
+         Q2Sql.executeUpdate(
+            "CREATE TABLE mytest ("
+               + " id BIGINT NOT NULL IDENTITY PRIMARY KEY"
+               + ", note VARCHAR(128)"
+               + ")");
+         for (int i = 0; i < 100; i++) {
+            Q2Sql.executeUpdate("insert into mytest (note) values(?)", i % 2 == 0 ? "even" : "odd");
+         }
+         Set<Integer> ids = ConcurrentHashMap.newKeySet();
+         Q2ObjList.parallelScan(MyTest.class, null, 4, obj -> ids.add(obj.id));
+         assertEquals(100, ids.size());
+
+         Set<Integer> evenIds = ConcurrentHashMap.newKeySet();
+         Q2ObjList.parallelScan(MyTest.class, "note = ?", 3, obj -> {
+            assertEquals("even", obj.note);
+            evenIds.add(obj.id);
+         }, "even");
+         assertEquals(50, evenIds.size());
+
+         Set<Integer> none = ConcurrentHashMap.newKeySet();
+         Q2ObjList.parallelScan(MyTest.class, "note = ?", 3, obj -> none.add(obj.id), "none");
+         assertTrue(none.isEmpty());
+      }
+      finally {
+         Q2Sql.executeUpdate("drop table mytest");
+      }
+   }
+
+   @Test
+   public void parallelScanWholeLongRange() {
+      try {
+         Q2Sql.executeUpdate(
+            "CREATE TABLE mytest ("
+               + " id BIGINT NOT NULL PRIMARY KEY"
+               + ", note VARCHAR(128)"
+               + ")");
+         List<Long> ids = Arrays.asList(Long.MIN_VALUE, Long.MIN_VALUE + 1, -5L, 0L, 7L, Long.MAX_VALUE - 1, Long.MAX_VALUE);
+         for (Long id : ids) {
+            Q2Sql.executeUpdate("insert into mytest values (?, ?)", id, "note");
+         }
+         Map<Long, String> threadById = new ConcurrentHashMap<>();
+         Q2ObjList.parallelScan(MyLongTest.class, null, 4, obj -> threadById.put(obj.id, Thread.currentThread().getName()));
+         assertEquals(ids.size(), threadById.size());
+         assertTrue(threadById.keySet().containsAll(ids));
+         // both ends of the range are read by different tasks, each task runs on a thread of its own
+         assertNotEquals(threadById.get(Long.MIN_VALUE), threadById.get(Long.MAX_VALUE));
+
+         Set<Long> single = ConcurrentHashMap.newKeySet();
+         Q2ObjList.parallelScan(MyLongTest.class, null, 1, obj -> single.add(obj.id));
+         assertEquals(ids.size(), single.size());
+      }
+      finally {
+         Q2Sql.executeUpdate("drop table mytest");
+      }
+   }
+
+   @Test
+   public void parallelScanRejectsNonConditions() {
+      try {
+         Q2Sql.executeUpdate(
+            "CREATE TABLE mytest ("
+               + " id DECIMAL(30, 0) NOT NULL PRIMARY KEY"
+               + ", note VARCHAR(128)"
+               + ")");
+         Q2Sql.executeUpdate("insert into mytest values (1, 'order by'), (2, 'b')");
+
+         try {
+            Q2ObjList.parallelScan(MyLongTest.class, "note = ? ORDER BY id", 2, obj -> { }, "b");
+            fail();
+         }
+         catch (IllegalArgumentException expected) {
+            assertTrue(expected.getMessage().contains("ORDER BY"));
+         }
+         try {
+            Q2ObjList.parallelScan(MyLongTest.class, "note <> ? limit 10", 2, obj -> { }, "b");
+            fail();
+         }
+         catch (IllegalArgumentException expected) {
+            assertTrue(expected.getMessage().contains("limit"));
+         }
+         // only the top level of the clause is checked
+         Set<Long> ids = ConcurrentHashMap.newKeySet();
+         Q2ObjList.parallelScan(MyLongTest.class, "note = 'order by' OR id IN (SELECT id FROM mytest ORDER BY id LIMIT 1)", 2, obj -> ids.add(obj.id));
+         assertEquals(1, ids.size());
+
+         try {
+            Q2ObjList.parallelScan(MyBigDecimalTest.class, null, 2, obj -> { });
+            fail();
+         }
+         catch (RuntimeException expected) {
+            assertTrue(expected.getMessage().contains("integral @Id"));
+         }
+
+         Q2Sql.executeUpdate("insert into mytest values (?, 'c')", BigInteger.ONE.shiftLeft(70));
+         try {
+            Q2ObjList.parallelScan(MyBigIntegerTest.class, null, 2, obj -> { });
+            fail();
+         }
+         catch (RuntimeException expected) {
+            assertTrue(expected.getMessage().contains("range of long"));
+         }
+      }
+      finally {
+         Q2Sql.executeUpdate("drop table mytest");
+      }
+   }
+
+   @Test
+   public void fromClauseBuffered() {
+      try {
+         Q2Sql.executeUpdate(
+            "CREATE TABLE mytest ("
+               + " id BIGINT NOT NULL IDENTITY PRIMARY KEY"
+               + ", note VARCHAR(128)"
+               + ")");
+         Q2Sql.executeUpdate("insert into mytest (note) values('a'), ('b'), ('c')");
+
+         List<MyTest> objs = Q2ObjList.fromClauseBuffered(MyTest.class, "id > ? ORDER BY id", 1);
+         assertEquals(2, objs.size());
+         assertEquals(2, objs.get(0).id);
+         assertEquals("b", objs.get(0).note);
+         assertEquals("c", objs.get(1).note);
+
+         objs = Q2ObjList.fromSelectBuffered(MyTest.class, "select note from mytest where note = ?", "a");
+         assertEquals(1, objs.size());
+         assertEquals("a", objs.get(0).note);
+         assertEquals(0, objs.get(0).id);
+
+         assertTrue(Q2ObjList.fromClauseBuffered(MyTest.class, "id > ?", 3).isEmpty());
+      }
+      finally {
+         Q2Sql.executeUpdate("drop table mytest");
+      }
+   }
+
+   @Test
+   public void deduplicateStrings() {
+      try {
+         Q2Sql.executeUpdate(
+            "CREATE TABLE mytest ("
+               + " id BIGINT NOT NULL IDENTITY PRIMARY KEY"
+               + ", note VARCHAR(128)"
+               + ")");
+         Q2Sql.executeUpdate("insert into mytest (note) values(?), (?), (?), (?)",
+            new String("open"), new String("closed"), new String("open"), new String("closed"));
+
+         List<MyDeduplicatedTest> objs = Q2ObjList.fromClause(MyDeduplicatedTest.class, "1=1 ORDER BY id");
+         assertEquals(4, objs.size());
+         assertEquals("open", objs.get(0).note);
+         assertSame(objs.get(0).note, objs.get(2).note);
+         assertEquals("closed", objs.get(1).note);
+         assertSame(objs.get(1).note, objs.get(3).note);
+      }
+      finally {
+         Q2Sql.executeUpdate("drop table mytest");
+      }
+   }
+
+   @Test
+   public void mapByIdAndGroupBy() {
+      try {
+         Q2Sql.executeUpdate(
+            "CREATE TABLE mytest ("
+               + " id BIGINT NOT NULL IDENTITY PRIMARY KEY"
+               + ", note VARCHAR(128)"
+               + ")");
+         Q2Sql.executeUpdate("insert into mytest (note) values('a'), ('b'), ('a')");
+
+         Map<Integer, MyTest> byId = Q2ObjList.mapById(MyTest.class, null);
+         assertEquals(3, byId.size());
+         assertEquals("b", byId.get(2).note);
+         assertEquals(Arrays.asList(1, 2, 3), new ArrayList<>(byId.keySet()));
+
+         Map<String, List<MyTest>> byNote = Q2ObjList.groupBy(MyTest.class, "note", "id > ? ORDER BY id", 0);
+         assertEquals(2, byNote.size());
+         assertEquals(2, byNote.get("a").size());
+         assertEquals(3, byNote.get("a").get(1).id);
+         assertEquals(1, byNote.get("b").size());
+
+         assertTrue(Q2ObjList.mapById(MyTest.class, "id < 0").isEmpty());
+
+         // presized
+         byId = Q2ObjList.mapById(MyTest.class, 3, "note = ?", "a");
+         assertEquals(Arrays.asList(1, 3), new ArrayList<>(byId.keySet()));
+         byNote = Q2ObjList.groupBy(MyTest.class, "note", 2, null);
+         assertEquals(2, byNote.size());
+         assertEquals(2, byNote.get("a").size());
+      }
+      finally {
+         Q2Sql.executeUpdate("drop table mytest");
+      }
+   }
+
+   @Test
+   public void namedQuery() {
+      try {
+         Q2Sql.executeUpdate(
+            "CREATE TABLE mytest ("
+               + " id BIGINT NOT NULL IDENTITY PRIMARY KEY"
+               + ", note VARCHAR(128)"
+               + ")");
+         Q2Sql.executeUpdate("insert into mytest (note) values('a'), ('b'), ('a')");
+
+         List<MyNamedQueryTest> objs = Q2ObjList.named(MyNamedQueryTest.class, "byNote", "a");
+         assertEquals(2, objs.size());
+         assertEquals(1, objs.get(0).id);
+         assertEquals(3, objs.get(1).id);
+         // second execution uses the cached parameter types
+         assertEquals(1, Q2ObjList.named(MyNamedQueryTest.class, "byNote", "b").size());
+         assertTrue(Q2ObjList.named(MyNamedQueryTest.class, "byNote", "c").isEmpty());
+         assertEquals(3, Q2ObjList.named(MyNamedQueryTest.class, "byNotes", Arrays.asList("a", "b")).size());
+         assertEquals(1, Q2ObjList.named(MyNamedQueryTest.class, "byNotes", (Object) new String[] {"b", "c"}).size());
+
+         objs = Q2ObjList.named(MyNamedQueryTest.class, "all");
+         assertEquals(3, objs.size());
+         assertEquals("a", objs.get(0).note);
+         assertEquals(3, objs.get(0).id);
+      }
+      finally {
+         Q2Sql.executeUpdate("drop table mytest");
+      }
+   }
+
+   @Test(expected = RuntimeException.class)
+   public void namedQueryUnknown() {
+      Q2ObjList.named(MyNamedQueryTest.class, "unknown");
+   }
+
+   @Test(expected = RuntimeException.class)
+   public void namedQueryInvalidResultClass() {
+      Q2ObjList.named(MyBrokenNamedQueryTest.class, "broken");
+   }
+
+   @Test
+   public void resultSetMapping() {
+      try {
+         Q2Sql.executeUpdate(
+            "CREATE TABLE mytest ("
+               + " id BIGINT NOT NULL IDENTITY PRIMARY KEY"
+               + ", note VARCHAR(128)"
+               + ")");
+         Q2Sql.executeUpdate("insert into mytest (note) values('a'), ('b'), ('a'), (null)");
+
+         List<NoteCount> counts = Q2ObjList.namedProjection(MyProjectionTest.class, "noteCounts");
+         assertEquals(3, counts.size());
+         assertNull(counts.get(0).note);
+         assertEquals("a", counts.get(1).note);
+         assertEquals(2, counts.get(1).count);
+         assertEquals(1, counts.get(2).count);
+
+         counts = Q2ObjList.namedProjection(MyProjectionTest.class, "noteCountsOf", Arrays.asList("a", "c"));
+         assertEquals(1, counts.size());
+         assertEquals(2, counts.get(0).count);
+
+         counts = Q2ObjList.fromResultSetMapping(MyProjectionTest.class, "NoteCount",
+            "SELECT id cnt, note FROM mytest WHERE id > ? ORDER BY id", 2);
+         assertEquals(2, counts.size());
+         assertEquals(3, counts.get(0).count);
+         assertEquals("a", counts.get(0).note);
+         assertNull(counts.get(1).note);
+      }
+      finally {
+         Q2Sql.executeUpdate("drop table mytest");
+      }
+   }
+
+   @Test
+   public void fromClauseSpilling() {
+      try {
+         Q2Sql.executeUpdate(
+            "CREATE TABLE mytest ("
+               + " id BIGINT NOT NULL IDENTITY PRIMARY KEY"
+               + ", note VARCHAR(128)"
+               + ")");
+         Q2Sql.executeUpdate("insert into mytest (note) select 'note ' || x from system_range(1, 500)");
+         Q2Sql.executeUpdate("update mytest set note = null where id = 400");
+
+         try (SpillingList<MyTest> objs = Q2ObjList.fromClauseSpilling(MyTest.class, 2000, "1=1 ORDER BY id")) {
+            assertTrue(objs.isSpilled());
+            assertEquals(500, objs.size());
+            int i = 0;
+            for (MyTest obj : objs) {
+               i++;
+               assertEquals(i, obj.id);
+               assertEquals(i == 400 ? null : "note " + i, obj.note);
+            }
+            assertEquals(500, i);
+         }
+
+         try (SpillingList<MyTest> objs = Q2ObjList.fromClauseSpilling(MyTest.class, 1 << 20, "id <= ?", 10)) {
+            assertFalse(objs.isSpilled());
+            assertEquals(10, objs.size());
+         }
+      }
+      finally {
+         Q2Sql.executeUpdate("drop table mytest");
+      }
+   }
+
+   @Test
+   public void resultGuard() {
+      try {
+         Q2Sql.executeUpdate(
+            "CREATE TABLE mytest ("
+               + " id BIGINT NOT NULL IDENTITY PRIMARY KEY"
+               + ", note VARCHAR(128)"
+               + ")");
+         Q2Sql.executeUpdate("insert into mytest (note) select 'note ' || x from system_range(1, 10)");
+
+         List<MyTest> objs = Q2ObjList.fromClauseGuarded(MyTest.class, ResultGuard.truncateAbove(3, Long.MAX_VALUE), "1=1 ORDER BY id");
+         assertEquals(3, objs.size());
+         assertTrue(ResultGuard.isTruncated(objs));
+         assertEquals(3, objs.get(2).id);
+
+         objs = Q2ObjList.fromClauseGuarded(MyTest.class, ResultGuard.failAbove(10, Long.MAX_VALUE), null);
+         assertEquals(10, objs.size());
+         assertFalse(ResultGuard.isTruncated(objs));
+
+         // each row is estimated at well over 50 bytes
+         objs = Q2ObjList.fromClauseGuarded(MyTest.class, ResultGuard.truncateAbove(Integer.MAX_VALUE, 200), "1=1 ORDER BY id");
+         assertTrue(ResultGuard.isTruncated(objs));
+         assertTrue(objs.size() > 0 && objs.size() < 4);
+
+         q2o.setResultGuard(ResultGuard.failAbove(5, Long.MAX_VALUE));
+         try {
+            Q2ObjList.fromClause(MyTest.class, null);
+            fail();
+         }
+         catch (RuntimeException expected) {
+            assertTrue(expected.getMessage().contains("rows"));
+         }
+         finally {
+            q2o.setResultGuard(ResultGuard.UNLIMITED);
+         }
+         assertEquals(10, Q2ObjList.fromClause(MyTest.class, null).size());
+
+         q2o.setResultGuard(ResultGuard.truncateAbove(4, Long.MAX_VALUE));
+         try {
+            objs = Q2ObjList.fromClauseBuffered(MyTest.class, null);
+            assertEquals(4, objs.size());
+            assertTrue(ResultGuard.isTruncated(objs));
+            try (SpillingList<MyTest> spilling = Q2ObjList.fromClauseSpilling(MyTest.class, Long.MAX_VALUE, null)) {
+               assertEquals(10, spilling.size());
+            }
+         }
+         finally {
+            q2o.setResultGuard(ResultGuard.UNLIMITED);
+         }
+      }
+      finally {
+         Q2Sql.executeUpdate("drop table mytest");
+      }
+   }
+
+   @Test
+   public void cursor() throws SQLException {
+      try {
+         Q2Sql.executeUpdate(
+            "CREATE TABLE mytest ("
+               + " id BIGINT NOT NULL IDENTITY PRIMARY KEY"
+               + ", note VARCHAR(128)"
+               + ")");
+         Q2Sql.executeUpdate("insert into mytest (note) select 'note ' || x from system_range(1, 10)");
+
+         try (ResultCursor<MyTest> cursor = Q2ObjList.cursor(MyTest.class, "id > ? ORDER BY id", 2)) {
+            assertEquals(ResultCursor.FETCH_SIZE, cursor.getStatement().getFetchSize());
+            assertFalse(cursor.getStatement().getConnection().getAutoCommit());
+            List<MyTest> batch = cursor.next(3);
+            assertEquals(3, batch.size());
+            assertEquals(3, batch.get(0).id);
+            assertEquals("note 5", batch.get(2).note);
+            assertEquals(6, cursor.next().id);
+            assertEquals(4, cursor.next(10).size());
+            assertTrue(cursor.isClosed());
+            assertFalse(cursor.hasNext());
+            assertTrue(cursor.next(1).isEmpty());
+         }
+
+         ResultCursor<MyTest> cursor = Q2ObjList.cursor(MyTest.class, null);
+         try (java.util.stream.Stream<MyTest> stream = cursor.stream()) {
+            assertEquals(3, stream.limit(3).count());
+         }
+         assertTrue(cursor.isClosed());
+
+         try (Connection connection = dataSource.getConnection();
+              ResultCursor<MyTest> ownCursor = Q2ObjList.cursor(connection, MyTest.class, null)) {
+            assertEquals(ResultCursor.FETCH_SIZE, ownCursor.getStatement().getFetchSize());
+            assertTrue(connection.getAutoCommit());
+            assertEquals(10, ownCursor.next(20).size());
+            assertFalse(connection.isClosed());
+         }
+      }
+      finally {
+         Q2Sql.executeUpdate("drop table mytest");
+      }
+   }
+
+   @Test
+   public void mapByCompositeId() {
+      try {
+         Q2Sql.executeUpdate(
+            "CREATE TABLE COMPOSITEKEY ("
+               + " id1 BIGINT NOT NULL"
+               + ", id2 BIGINT NOT NULL"
+               + ", note VARCHAR(128)"
+               + ", PRIMARY KEY (id1, id2)"
+               + ")");
+         Q2Sql.executeUpdate("insert into COMPOSITEKEY values (1, 1, 'a'), (1, 2, 'b')");
+         Map<List<Object>, CompositeKey> byId = Q2ObjList.mapById(CompositeKey.class, null);
+         assertEquals(2, byId.size());
+         assertEquals("b", byId.get(Arrays.asList(1, 2)).getNote());
+      }
+      finally {
+         Q2Sql.executeUpdate("drop table COMPOSITEKEY");
+      }
+   }
+
+   @Test
+   public void updateBatched() {
+      try {
+         Q2Sql.executeUpdate(
+            "CREATE TABLE mytest ("
+               + " id BIGINT NOT NULL IDENTITY PRIMARY KEY"
+               + ", note VARCHAR(128)"
+               + ", status VARCHAR(16)"
+               + ")");
+         Q2Sql.executeUpdate("insert into mytest (note, status) select 'note ' || x, 'new' from system_range(1, 2500)");
+
+         List<MyUpdateTest> objs = Q2ObjList.fromClause(MyUpdateTest.class, "1=1 ORDER BY id");
+         objs.forEach(obj -> {
+            obj.note = "changed " + obj.id;
+            obj.status = "done";
+         });
+         // does not exist
+         MyUpdateTest missing = new MyUpdateTest();
+         missing.id = 9999;
+         objs.add(missing);
+
+         int[] counts = Q2ObjList.updateBatchedIncludeColumns(objs, "STATUS");
+         assertEquals(2501, counts.length);
+         assertEquals(1, counts[0]);
+         assertEquals(1, counts[2499]);
+         assertEquals(0, counts[2500]);
+         assertEquals(2500, Q2Sql.numberFromSql("SELECT COUNT(*) FROM mytest WHERE status = 'done' AND note LIKE 'note%'").intValue());
+
+         counts = Q2ObjList.updateBatchedExcludeColumns(objs.subList(0, 10), "status");
+         assertEquals(10, counts.length);
+         assertEquals(10, Q2Sql.numberFromSql("SELECT COUNT(*) FROM mytest WHERE note LIKE 'changed%'").intValue());
+
+         objs.forEach(obj -> obj.status = "archived");
+         counts = Q2ObjList.updateBatched(objs);
+         assertEquals(2501, counts.length);
+         assertEquals(2500, Q2Sql.numberFromSql("SELECT COUNT(*) FROM mytest WHERE status = 'archived' AND note LIKE 'changed%'").intValue());
+
+         assertEquals(0, Q2ObjList.updateBatched(new ArrayList<MyUpdateTest>()).length);
+      }
+      finally {
+         Q2Sql.executeUpdate("drop table mytest");
+      }
+   }
+
+   @Test
+   public void deleteInChunks() {
+      try {
+         Q2Sql.executeUpdate(
+            "CREATE TABLE mytest ("
+               + " id BIGINT NOT NULL IDENTITY PRIMARY KEY"
+               + ", note VARCHAR(128)"
+               + ")");
+         Q2Sql.executeUpdate("insert into mytest (note) select 'note ' || x from system_range(1, 1300)");
+         List<MyTest> objs = Q2ObjList.fromClause(MyTest.class, "1=1 ORDER BY id");
+         // 2 full chunks and a padded one
+         assertEquals(1100, Q2ObjList.delete(objs.subList(0, 1100)));
+         assertEquals(200, Q2Sql.numberFromSql("SELECT COUNT(*) FROM mytest").intValue());
+         assertEquals(1, Q2ObjList.delete(objs.subList(1299, 1300)));
+         assertEquals(0, Q2ObjList.delete(MyTest.class, new ArrayList<>()));
+         assertEquals(199, Q2Sql.numberFromSql("SELECT COUNT(*) FROM mytest").intValue());
+
+         Q2Sql.executeUpdate(
+            "CREATE TABLE COMPOSITEKEY ("
+               + " id1 BIGINT NOT NULL"
+               + ", id2 BIGINT NOT NULL"
+               + ", note VARCHAR(128)"
+               + ", PRIMARY KEY (id1, id2)"
+               + ")");
+         Q2Sql.executeUpdate("insert into COMPOSITEKEY select mod(x, 7), x, 'a' from system_range(1, 600)");
+         List<CompositeKey> keys = Q2ObjList.fromClause(CompositeKey.class, "id2 <= 550");
+         assertEquals(550, Q2ObjList.delete(keys));
+         assertEquals(50, Q2Sql.numberFromSql("SELECT COUNT(*) FROM COMPOSITEKEY").intValue());
+      }
+      finally {
+         Q2Sql.executeUpdate("drop table mytest");
+         Q2Sql.executeUpdate("drop table if exists COMPOSITEKEY");
+      }
+   }
+
+   @Test
+   public void insertChunked() {
+      try {
+         Q2Sql.executeUpdate(
+            "CREATE TABLE mytest ("
+               + " id BIGINT NOT NULL IDENTITY PRIMARY KEY"
+               + ", note VARCHAR(128)"
+               + ")");
+         Q2ObjList.insertBatched(IntStream.rangeClosed(1, 2500).mapToObj(i -> {
+            MyTest obj = new MyTest();
+            obj.id = i;
+            obj.note = "batched " + i;
+            return obj;
+         }));
+         assertEquals(2500, Q2Sql.numberFromSql("SELECT COUNT(*) FROM mytest").intValue());
+
+         // 5 statements of 499 rows and one of 5
+         Q2ObjList.insertMultiRow(IntStream.rangeClosed(2501, 5000).mapToObj(i -> {
+            MyTest obj = new MyTest();
+            obj.id = i;
+            obj.note = "multi " + i;
+            return obj;
+         }));
+         assertEquals(2500, Q2Sql.numberFromSql("SELECT COUNT(*) FROM mytest WHERE note = 'multi ' || id").intValue());
+
+         List<MyGeneratedTest> generated = IntStream.range(0, 1200).mapToObj(i -> {
+            MyGeneratedTest obj = new MyGeneratedTest();
+            obj.note = "generated " + i;
+            return obj;
+         }).collect(Collectors.toList());
+         Q2ObjList.insertMultiRow(generated);
+         assertEquals(1200, generated.stream().map(obj -> obj.id).distinct().count());
+         generated.forEach(obj -> assertEquals(obj.note, Q2Obj.byId(MyTest.class, obj.id).note));
+      }
+      finally {
+         Q2Sql.executeUpdate("drop table mytest");
+      }
+   }
 }
@@ -0,0 +1,107 @@
+package com.zaxxer.q2o;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.sansorm.TestUtils;
+
+import java.util.Arrays;
+import java.util.List;
+
+import javax.persistence.Column;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import static org.junit.Assert.*;
+
+public class Q2QueryTest {
+
+   public enum Status { ACTIVE, BLOCKED }
+
+   @Table(name = "query_test")
+   public static class Customer {
+      @Id
+      int id;
+      @Column(name = "last_name")
+      String lastName;
+      @Enumerated(EnumType.STRING)
+      Status status;
+   }
+
+   private static final Q2Query<Customer> BY_LAST_NAME =
+      Q2Query.of(Customer.class).where("lastName", Q2Query.Op.EQ).orderByDesc("id").limit();
+
+   @BeforeClass
+   public static void beforeClass() throws Exception {
+      q2o.initializeTxNone(TestUtils.makeH2DataSource());
+   }
+
+   @AfterClass
+   public static void afterClass() throws Exception {
+      q2o.deinitialize();
+   }
+
+   @Before
+   public void setUp() {
+      Q2Sql.executeUpdate("CREATE TABLE query_test (id INT PRIMARY KEY, last_name VARCHAR(32), status VARCHAR(8))");
+      Q2Sql.executeUpdate("insert into query_test select x, CASEWHEN(x < 4, 'Smith', 'Jones'), CASEWHEN(mod(x, 2) = 0, 'BLOCKED', 'ACTIVE') from system_range(1, 6)");
+      Q2Sql.executeUpdate("insert into query_test values (7, NULL, 'ACTIVE')");
+   }
+
+   @After
+   public void tearDown() {
+      Q2Sql.executeUpdate("drop table query_test");
+   }
+
+   @Test
+   public void sql() {
+      assertEquals("SELECT query_test.id,query_test.last_name,query_test.status FROM query_test query_test"
+         + " WHERE query_test.last_name = ? ORDER BY query_test.id DESC", BY_LAST_NAME.toSql());
+   }
+
+   @Test
+   public void conditionsOrderAndLimit() {
+      List<Customer> customers = BY_LAST_NAME.list("Smith", 2);
+      assertEquals(2, customers.size());
+      assertEquals(3, customers.get(0).id);
+      assertEquals(2, customers.get(1).id);
+
+      assertEquals(3, BY_LAST_NAME.list("Jones", 0).size());
+      assertEquals(6, BY_LAST_NAME.first("Jones", 0).id);
+      assertNull(BY_LAST_NAME.first("Miller", 10));
+   }
+
+   @Test
+   public void convertsArguments() {
+      Q2Query<Customer> query = Q2Query.of(Customer.class)
+         .where("status", Q2Query.Op.EQ)
+         .where("id", Q2Query.Op.IN)
+         .orderBy("id");
+      List<Customer> customers = query.list(Status.ACTIVE, Arrays.asList(1, 2, 3, 5));
+      assertEquals(3, customers.size());
+      assertEquals(Status.ACTIVE, customers.get(2).status);
+      assertEquals(5, customers.get(2).id);
+      // database representation is bound as is
+      assertEquals(2, query.list("BLOCKED", new Integer[] {2, 3, 4}).size());
+   }
+
+   @Test
+   public void isNull() {
+      Customer customer = Q2Query.of(Customer.class).where("lastName", Q2Query.Op.IS_NULL).first();
+      assertEquals(7, customer.id);
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void unknownAttribute() {
+      Q2Query.of(Customer.class).where("last_name", Q2Query.Op.EQ).toSql();
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void wrongArgumentCount() {
+      BY_LAST_NAME.list("Smith");
+   }
+}
@@ -0,0 +1,108 @@
+package com.zaxxer.q2o;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.sansorm.TestUtils;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import javax.persistence.Column;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import static org.junit.Assert.*;
+
+public class Q2RowMapperTest {
+
+   @Table(name = "row_mapper_test")
+   public static class Item {
+      @Id
+      int id;
+      @Column(name = "item_name")
+      String name;
+      Integer quantity;
+   }
+
+   @BeforeClass
+   public static void beforeClass() throws Exception {
+      q2o.initializeTxNone(TestUtils.makeH2DataSource());
+   }
+
+   @AfterClass
+   public static void afterClass() throws Exception {
+      q2o.deinitialize();
+   }
+
+   @Before
+   public void setUp() {
+      Q2Sql.executeUpdate("CREATE TABLE row_mapper_test (id INT PRIMARY KEY, item_name VARCHAR(32), quantity INT)");
+      Q2Sql.executeUpdate("insert into row_mapper_test select x, 'item ' || x, x * 10 from system_range(1, 3)");
+   }
+
+   @After
+   public void tearDown() {
+      Q2Sql.executeUpdate("drop table row_mapper_test");
+   }
+
+   private static <T> List<T> mapAll(Q2RowMapper<T> mapper, String sql) {
+      return SqlClosure.sqlExecute(connection -> {
+         List<T> items = new ArrayList<>();
+         try (Statement stmt = connection.createStatement(); ResultSet rs = stmt.executeQuery(sql)) {
+            int rowNum = 0;
+            while (rs.next()) {
+               items.add(mapper.mapRow(rs, rowNum++));
+            }
+         }
+         return items;
+      });
+   }
+
+   @Test
+   public void mapRows() {
+      Q2RowMapper<Item> mapper = new Q2RowMapper<>(Item.class);
+      List<Item> items = mapAll(mapper, "SELECT * FROM row_mapper_test ORDER BY id");
+      assertEquals(3, items.size());
+      assertEquals(2, items.get(1).id);
+      assertEquals("item 2", items.get(1).name);
+      assertEquals(Integer.valueOf(20), items.get(1).quantity);
+      assertNotSame(items.get(0), items.get(1));
+
+      // another result shape with the same mapper
+      items = mapAll(mapper, "SELECT quantity, id FROM row_mapper_test WHERE id = 3");
+      assertEquals(1, items.size());
+      assertEquals(3, items.get(0).id);
+      assertNull(items.get(0).name);
+      assertEquals(Integer.valueOf(30), items.get(0).quantity);
+   }
+
+   @Test
+   public void ignoredColumns() {
+      Q2RowMapper<Item> mapper = new Q2RowMapper<>(Item.class, Collections.singleton("ITEM_NAME"));
+      List<Item> items = mapAll(mapper, "SELECT * FROM row_mapper_test WHERE id = 1");
+      assertNull(items.get(0).name);
+      assertEquals(Integer.valueOf(10), items.get(0).quantity);
+   }
+
+   @Test
+   public void sameAsFromResultSet() throws SQLException {
+      try (Connection connection = SqlClosure.getConnection();
+           Statement stmt = connection.createStatement();
+           ResultSet rs = stmt.executeQuery("SELECT id, item_name, quantity FROM row_mapper_test WHERE id = 2")) {
+         assertTrue(rs.next());
+         Item expected = Q2Obj.fromResultSet(rs, new Item());
+         Item actual = new Q2RowMapper<>(Item.class).mapRow(rs);
+         assertEquals(expected.id, actual.id);
+         assertEquals(expected.name, actual.name);
+         assertEquals(expected.quantity, actual.quantity);
+      }
+   }
+}
@@ -0,0 +1,132 @@
+package com.zaxxer.q2o;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.sansorm.TestUtils;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class Q2SqlTest {
+
+   @BeforeClass
+   public static void beforeClass() throws Exception {
+      q2o.initializeTxNone(TestUtils.makeH2DataSource());
+   }
+
+   @AfterClass
+   public static void afterClass() throws Exception {
+      q2o.deinitialize();
+   }
+
+   @Before
+   public void setUp() {
+      Q2Sql.executeUpdate(
+         "CREATE TABLE q2sql_test ("
+            + " id BIGINT NOT NULL IDENTITY PRIMARY KEY"
+            + ", code VARCHAR(16)"
+            + ", amount DOUBLE"
+            + ")");
+      Q2Sql.executeUpdate("insert into q2sql_test (code, amount) values('EUR', 1.5), ('USD', 2.5), (NULL, 3)");
+   }
+
+   @After
+   public void tearDown() {
+      Q2Sql.executeUpdate("drop table q2sql_test");
+   }
+
+   @Test
+   public void listOfRows() {
+      List<ResultRow> rows = Q2Sql.listOfRows("select id, code as currency, amount from q2sql_test where amount > ? order by id", 2);
+      assertEquals(2, rows.size());
+      ResultRow row = rows.get(0);
+      assertEquals(3, row.size());
+      assertEquals(Arrays.asList("ID", "CURRENCY", "AMOUNT"), row.getColumnLabels());
+      assertEquals("USD", row.get(1));
+      assertEquals("USD", row.get("currency"));
+      assertEquals(2.5, (Double) row.get("Amount"), 0);
+      assertNull(rows.get(1).get("CURRENCY"));
+      assertSame(row.getColumnLabels(), rows.get(1).getColumnLabels());
+
+      assertTrue(Q2Sql.listOfRows("select * from q2sql_test where id < 0").isEmpty());
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void listOfRowsUnknownColumn() {
+      Q2Sql.listOfRows("select id from q2sql_test").get(0).get("code");
+   }
+
+   @Test
+   public void listOfMaps() {
+      List<Map<String, Object>> maps = Q2Sql.listOfMaps("select code, amount from q2sql_test order by id");
+      assertEquals(3, maps.size());
+      Map<String, Object> map = maps.get(0);
+      assertEquals(2, map.size());
+      assertEquals("EUR", map.get("code"));
+      assertEquals("EUR", map.get("CODE"));
+      assertTrue(map.containsKey("amount"));
+      assertFalse(map.containsKey("id"));
+      assertEquals("{CODE=EUR, AMOUNT=1.5}", map.toString());
+      assertTrue(maps.get(2).containsKey("code"));
+      assertNull(maps.get(2).get("code"));
+   }
+
+   @Test
+   public void scalarArrays() {
+      assertArrayEquals(new long[] {1, 2, 3}, Q2Sql.longsFromSql("select id from q2sql_test order by id"));
+      assertArrayEquals(new int[] {2, 3}, Q2Sql.intsFromSql("select id from q2sql_test where id > ? order by id", 1));
+      assertArrayEquals(new double[] {1.5, 2.5, 3}, Q2Sql.doublesFromSql("select amount from q2sql_test order by id"), 0);
+      assertArrayEquals(new String[] {"EUR", "USD", null}, Q2Sql.stringsFromSql("select code from q2sql_test order by id"));
+      assertEquals(0, Q2Sql.longsFromSql("select id from q2sql_test where id < 0").length);
+   }
+
+   @Test
+   public void collectionParameters() {
+      assertArrayEquals(new long[] {1, 3}, Q2Sql.longsFromSql("select id from q2sql_test where id in (?) order by id", Arrays.asList(1, 3)));
+      assertArrayEquals(new long[] {1, 2, 3}, Q2Sql.longsFromSql("select id from q2sql_test where id in ( ? ) and code <> '?' or code is null order by id", new long[] {1, 2, 3}));
+      assertArrayEquals(new long[] {2}, Q2Sql.longsFromSql("select id from q2sql_test where id > ? and code IN (?) order by id", 1, new String[] {"EUR", "USD"}));
+      assertArrayEquals(new long[] {2}, Q2Sql.longsFromSql("select id from q2sql_test where id not in (?) and code is not null", Collections.singleton(1)));
+      assertEquals(0, Q2Sql.longsFromSql("select id from q2sql_test where id in (?)", Collections.emptyList()).length);
+      assertEquals(2, Q2Sql.executeUpdate("delete from q2sql_test where code in (?)", Arrays.asList("EUR", "USD")));
+   }
+
+   @Test
+   public void collectionParameterBuckets() throws SQLException {
+      assertEquals(1, ExpandedSql.bucketSize(1));
+      assertEquals(4, ExpandedSql.bucketSize(3));
+      assertEquals(4, ExpandedSql.bucketSize(4));
+      assertEquals(1024, ExpandedSql.bucketSize(1000));
+      assertEquals(2048, ExpandedSql.bucketSize(1025));
+
+      try (Connection connection = TestUtils.makeH2DataSource().getConnection()) {
+         ExpandedSql expanded = ExpandedSql.expand(connection, "select * from t where a in (?) and b = ?", Arrays.asList(1, 2, 3), "x");
+         assertEquals("select * from t where a in (?,?,?,?) and b = ?", expanded.sql);
+         assertArrayEquals(new Object[] {1, 2, 3, 3, "x"}, expanded.args);
+
+         // an array outside of an IN list is a plain value
+         Object[] array = {1, 2};
+         expanded = ExpandedSql.expand(connection, "insert into t values (?)", new Object[] {array});
+         assertEquals("insert into t values (?)", expanded.sql);
+         assertSame(array, expanded.args[0]);
+      }
+   }
+
+   @Test
+   public void scalarArraysGrow() {
+      Q2Sql.executeUpdate("insert into q2sql_test (code, amount) select 'X', x from system_range(1, 1000)");
+      long[] ids = Q2Sql.longsFromSql("select id from q2sql_test order by id");
+      assertEquals(1003, ids.length);
+      for (int i = 0; i < ids.length; i++) {
+         assertEquals(i + 1, ids[i]);
+      }
+   }
+}
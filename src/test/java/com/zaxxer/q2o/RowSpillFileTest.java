@@ -0,0 +1,43 @@
+package com.zaxxer.q2o;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class RowSpillFileTest {
+
+   @Test
+   public void roundTrip() throws Exception {
+      Timestamp timestamp = new Timestamp(1234567890123L);
+      timestamp.setNanos(123456789);
+      Object[] row = {
+         null, "grüße", 42, 42L, 1.5d, 2.5f, (short) 7, (byte) 8, true,
+         new BigDecimal("-12345.678"), new BigInteger("123456789012345678901234567890"), timestamp,
+         new java.sql.Date(86400000L), new Time(3600000L), new byte[] {1, 2, 3}, UUID.randomUUID(),
+         java.time.LocalDate.of(2020, 2, 29)
+      };
+
+      try (RowSpillFile spillFile = new RowSpillFile()) {
+         spillFile.append(row);
+         spillFile.append(new Object[row.length]);
+         assertEquals(2, spillFile.size());
+
+         Object[] read = spillFile.read(0, row.length);
+         for (int i = 0; i < row.length; i++) {
+            if (row[i] instanceof byte[]) {
+               assertArrayEquals((byte[]) row[i], (byte[]) read[i]);
+            }
+            else {
+               assertEquals(row[i], read[i]);
+            }
+         }
+         assertArrayEquals(new Object[row.length], spillFile.read(1, row.length));
+      }
+   }
+}
@@ -2,6 +2,7 @@ package com.zaxxer.q2o;
 
 import org.h2.jdbcx.JdbcDataSource;
 import org.junit.After;
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -17,6 +18,8 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
 
+import javax.persistence.Table;
+
 import static com.zaxxer.q2o.Q2Sql.executeUpdate;
 import static com.zaxxer.q2o.q2o.*;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -32,6 +35,11 @@ public class SqlClosureTest {
       });
    }
 
+   @Table(name = "tx_test")
+   public static class TxTest {
+      String string;
+   }
+
    @Parameterized.Parameter(0)
    public boolean withAutoCommit;
 
@@ -58,6 +66,22 @@ public class SqlClosureTest {
       deinitialize();
    }
 
+   @Test
+   public void cursorShouldJoinTransaction() {
+      Assume.assumeTrue(withUserTx);
+      final Set<String> values = SqlClosure.sqlExecute(c -> {
+         Q2Sql.executeUpdate(c, "INSERT INTO tx_test VALUES (?)", "7");
+         try (ResultCursor<TxTest> cursor = Q2ObjList.cursor(TxTest.class, null)) {
+            // uncommitted row of the transaction
+            assertThat(cursor.next().string).isEqualTo("7");
+         }
+         // closing the cursor left the transaction's connection open
+         Q2Sql.executeUpdate(c, "INSERT INTO tx_test VALUES (?)", "8");
+         return getStrings(c);
+      });
+      assertThat(values).containsOnly("7", "8");
+   }
+
    @Test
    public void shouldSupportNestedCalls() {
       final Set<String> insertedValues = SqlClosure.sqlExecute(c -> {
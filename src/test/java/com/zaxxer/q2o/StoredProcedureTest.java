@@ -0,0 +1,101 @@
+package com.zaxxer.q2o;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.sansorm.TestUtils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.List;
+
+import javax.persistence.Id;
+import javax.persistence.NamedStoredProcedureQuery;
+import javax.persistence.ParameterMode;
+import javax.persistence.StoredProcedureParameter;
+import javax.persistence.Table;
+
+import static org.junit.Assert.*;
+
+public class StoredProcedureTest {
+
+   @Table(name = "proc_test")
+   @NamedStoredProcedureQuery(name = "byMinAmount", procedureName = "PROC_TEST_BY_MIN_AMOUNT",
+      parameters = @StoredProcedureParameter(name = "minAmount", mode = ParameterMode.IN, type = Integer.class))
+   public static class ProcTest {
+      @Id
+      int id;
+      int amount;
+   }
+
+   public static ResultSet byMinAmount(Connection connection, Integer minAmount) throws SQLException {
+      PreparedStatement stmt = connection.prepareStatement("SELECT id, amount FROM proc_test WHERE amount >= ? ORDER BY id");
+      stmt.setObject(1, minAmount);
+      return stmt.executeQuery();
+   }
+
+   public static int doubleAmounts(Connection connection, int minAmount) throws SQLException {
+      try (PreparedStatement stmt = connection.prepareStatement("UPDATE proc_test SET amount = amount * 2 WHERE amount >= ?")) {
+         stmt.setInt(1, minAmount);
+         return stmt.executeUpdate();
+      }
+   }
+
+   @BeforeClass
+   public static void beforeClass() throws Exception {
+      q2o.initializeTxNone(TestUtils.makeH2DataSource());
+   }
+
+   @AfterClass
+   public static void afterClass() throws Exception {
+      q2o.deinitialize();
+   }
+
+   @Before
+   public void setUp() {
+      Q2Sql.executeUpdate("CREATE TABLE proc_test (id BIGINT NOT NULL IDENTITY PRIMARY KEY, amount INT)");
+      Q2Sql.executeUpdate("insert into proc_test (amount) values(10), (20), (30)");
+      Q2Sql.executeUpdate("CREATE ALIAS PROC_TEST_BY_MIN_AMOUNT FOR \"" + StoredProcedureTest.class.getName() + ".byMinAmount\"");
+      Q2Sql.executeUpdate("CREATE ALIAS PROC_TEST_DOUBLE_AMOUNTS FOR \"" + StoredProcedureTest.class.getName() + ".doubleAmounts\"");
+   }
+
+   @After
+   public void tearDown() {
+      Q2Sql.executeUpdate("DROP ALIAS PROC_TEST_BY_MIN_AMOUNT");
+      Q2Sql.executeUpdate("DROP ALIAS PROC_TEST_DOUBLE_AMOUNTS");
+      Q2Sql.executeUpdate("drop table proc_test");
+   }
+
+   @Test
+   public void fromProcedure() {
+      List<ProcTest> objs = Q2ObjList.fromProcedure(ProcTest.class, "{call PROC_TEST_BY_MIN_AMOUNT(?)}", 20);
+      assertEquals(2, objs.size());
+      assertEquals(2, objs.get(0).id);
+      assertEquals(30, objs.get(1).amount);
+   }
+
+   @Test
+   public void namedProcedure() {
+      List<ProcTest> objs = Q2ObjList.namedProcedure(ProcTest.class, "byMinAmount", 30);
+      assertEquals(1, objs.size());
+      assertEquals(3, objs.get(0).id);
+   }
+
+   @Test(expected = RuntimeException.class)
+   public void namedProcedureWrongArguments() {
+      Q2ObjList.namedProcedure(ProcTest.class, "byMinAmount", OutParameter.out(Types.INTEGER));
+   }
+
+   @Test
+   public void callWithOutParameter() {
+      OutParameter updated = OutParameter.out(Types.INTEGER);
+      Q2Sql.call("{? = call PROC_TEST_DOUBLE_AMOUNTS(?)}", updated, 20);
+      assertEquals(Integer.valueOf(2), updated.getValue());
+      assertEquals(60, Q2Sql.numberFromSql("SELECT amount FROM proc_test WHERE id = 3").intValue());
+   }
+}
@@ -0,0 +1,167 @@
+package com.zaxxer.q2o;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.sansorm.TestUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.persistence.Column;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+import static org.junit.Assert.*;
+
+public class UpsertTest {
+
+   @Table(name = "upsert_test")
+   public static class Account {
+      @Id
+      int id;
+      String name;
+      @Column(updatable = false)
+      String createdBy;
+
+      Account() {
+      }
+
+      Account(int id, String name, String createdBy) {
+         this.id = id;
+         this.name = name;
+         this.createdBy = createdBy;
+      }
+   }
+
+   @Table(name = "upsert_generated_test")
+   public static class Counter {
+      @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+      Integer id;
+      int total;
+   }
+
+   @Table(name = "upsert_long_test")
+   public static class Event {
+      @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
+      long id;
+      String name;
+   }
+
+   @BeforeClass
+   public static void beforeClass() throws Exception {
+      q2o.initializeTxNone(TestUtils.makeH2DataSource());
+   }
+
+   @AfterClass
+   public static void afterClass() throws Exception {
+      q2o.deinitialize();
+   }
+
+   @Before
+   public void setUp() {
+      Q2Sql.executeUpdate("CREATE TABLE upsert_test (id INT PRIMARY KEY, name VARCHAR(32), createdBy VARCHAR(32))");
+      Q2Sql.executeUpdate("CREATE TABLE upsert_generated_test (id INT NOT NULL IDENTITY PRIMARY KEY, total INT)");
+      Q2Sql.executeUpdate("CREATE TABLE upsert_long_test (id BIGINT NOT NULL IDENTITY PRIMARY KEY, name VARCHAR(32))");
+      Q2Sql.executeUpdate("insert into upsert_test values (1, 'one', 'setup'), (2, 'two', 'setup')");
+   }
+
+   @After
+   public void tearDown() {
+      Q2Sql.executeUpdate("drop table upsert_test");
+      Q2Sql.executeUpdate("drop table upsert_generated_test");
+      Q2Sql.executeUpdate("drop table upsert_long_test");
+   }
+
+   @Test
+   public void onConflictSql() {
+      Introspected introspected = Introspector.getIntrospected(Account.class);
+      assertEquals("INSERT INTO upsert_test (id,name,createdBy) VALUES (?,?,?) ON CONFLICT (id) DO UPDATE SET name=EXCLUDED.name",
+         OrmWriter.createSqlForUpsert(introspected, OrmWriter.getUpsertFcInfos(introspected), OrmWriter.UpsertSyntax.ON_CONFLICT));
+      assertEquals("MERGE INTO upsert_test (id,name,createdBy) KEY (id) VALUES (?,?,?)",
+         OrmWriter.createSqlForUpsert(introspected, OrmWriter.getUpsertFcInfos(introspected), OrmWriter.UpsertSyntax.MERGE_KEY));
+   }
+
+   @Test
+   public void upsertBatched() {
+      List<Account> accounts = new ArrayList<>();
+      for (int id = 1; id <= 1500; id++) {
+         accounts.add(new Account(id, "name " + id, "sync"));
+      }
+      Q2ObjList.upsertBatched(accounts);
+      assertEquals(1500, Q2Sql.numberFromSql("SELECT COUNT(*) FROM upsert_test").intValue());
+      assertEquals("name 2", Q2Obj.byId(Account.class, 2).name);
+      assertEquals("sync", Q2Obj.byId(Account.class, 1500).createdBy);
+
+      Q2Obj.upsert(new Account(2, "changed", "sync"));
+      assertEquals("changed", Q2Obj.byId(Account.class, 2).name);
+   }
+
+   @Test
+   public void updateThenInsert() throws Exception {
+      SqlClosure.sqlExecute(c -> {
+         OrmWriter.upsertObjects(c, Arrays.asList(new Account(2, "changed", "sync"), new Account(3, "three", "sync")), OrmWriter.UpsertSyntax.NONE);
+         return null;
+      });
+      assertEquals(3, Q2Sql.numberFromSql("SELECT COUNT(*) FROM upsert_test").intValue());
+      Account two = Q2Obj.byId(Account.class, 2);
+      assertEquals("changed", two.name);
+      // not updatable
+      assertEquals("setup", two.createdBy);
+      assertEquals("three", Q2Obj.byId(Account.class, 3).name);
+   }
+
+   @Test
+   public void generatedId() {
+      Counter counter = new Counter();
+      counter.total = 1;
+      Q2Obj.upsert(counter);
+      assertNotNull(counter.id);
+
+      counter.total = 2;
+      Q2Obj.upsert(counter);
+      assertEquals(1, Q2Sql.numberFromSql("SELECT COUNT(*) FROM upsert_generated_test").intValue());
+      assertEquals(2, Q2Obj.byId(Counter.class, counter.id).total);
+   }
+
+   @Test
+   public void generatedLongId() {
+      Event first = new Event();
+      first.name = "first";
+      Event second = new Event();
+      second.name = "second";
+      Q2ObjList.upsertBatched(Arrays.asList(first, second));
+      assertTrue(first.id > 0);
+      assertTrue(second.id > 0);
+      assertNotEquals(first.id, second.id);
+      assertEquals(2, Q2Sql.numberFromSql("SELECT COUNT(*) FROM upsert_long_test").intValue());
+
+      first.name = "changed";
+      Q2Obj.upsert(first);
+      assertEquals("changed", Q2Obj.byId(Event.class, first.id).name);
+      assertEquals("second", Q2Obj.byId(Event.class, second.id).name);
+   }
+
+   @Test
+   public void updateWithUnsetLongId() {
+      Event existing = new Event();
+      existing.name = "existing";
+      Event unsaved = new Event();
+      unsaved.name = "unsaved";
+      SqlClosure.sqlExecute(c -> {
+         Q2Obj.insert(c, existing);
+         // the UPDATE matches no row and must not pick up the key generated by the INSERT before
+         Q2Obj.update(c, unsaved);
+         return null;
+      });
+      assertTrue(existing.id > 0);
+      assertEquals(0, unsaved.id);
+      assertEquals("existing", Q2Obj.byId(Event.class, existing.id).name);
+      assertEquals(1, Q2Sql.numberFromSql("SELECT COUNT(*) FROM upsert_long_test").intValue());
+   }
+}
@@ -0,0 +1,89 @@
+package com.zaxxer.q2o;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.sansorm.TestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.persistence.Column;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.Version;
+
+import static org.junit.Assert.*;
+
+public class WatermarkReaderTest {
+
+   @Table(name = "watermark_test")
+   public static class Item {
+      @Id
+      int id;
+      @Version
+      @Column(name = "change_no")
+      long changeNo;
+      String name;
+   }
+
+   @BeforeClass
+   public static void beforeClass() throws Exception {
+      q2o.initializeTxNone(TestUtils.makeH2DataSource());
+   }
+
+   @AfterClass
+   public static void afterClass() throws Exception {
+      q2o.deinitialize();
+   }
+
+   @Before
+   public void setUp() {
+      Q2Sql.executeUpdate("CREATE TABLE watermark_test (id INT PRIMARY KEY, change_no BIGINT, name VARCHAR(32))");
+      // five rows sharing change_no 1 to have ties across batch boundaries
+      Q2Sql.executeUpdate("insert into watermark_test select x, 1, 'item ' || x from system_range(1, 5)");
+   }
+
+   @After
+   public void tearDown() {
+      Q2Sql.executeUpdate("drop table watermark_test");
+   }
+
+   @Test
+   public void readsOnlyChanges() {
+      WatermarkReader<Item> reader = new WatermarkReader<>(Item.class, 2);
+      List<Item> items = new ArrayList<>();
+      assertEquals(5, reader.poll(items::add));
+      for (int i = 0; i < 5; i++) {
+         assertEquals(i + 1, items.get(i).id);
+      }
+      assertEquals(1L, reader.getWatermark());
+      assertEquals(5, reader.getLastId());
+
+      assertEquals(0, reader.poll(items::add));
+
+      Q2Sql.executeUpdate("update watermark_test set change_no = 2, name = 'changed' where id = 3");
+      Q2Sql.executeUpdate("insert into watermark_test values (6, 2, 'new')");
+      items.clear();
+      assertEquals(2, reader.poll(items::add));
+      assertEquals("changed", items.get(0).name);
+      assertEquals(6, items.get(1).id);
+   }
+
+   @Test
+   public void idAsWatermark() {
+      WatermarkReader<Item> reader = new WatermarkReader<>(Item.class, "id", 3);
+      reader.resume(2, 2);
+      List<Item> items = new ArrayList<>();
+      assertEquals(3, reader.poll(items::add));
+      assertEquals(3, items.get(0).id);
+      assertEquals(5, reader.getWatermark());
+   }
+
+   @Test(expected = IllegalArgumentException.class)
+   public void unknownAttribute() {
+      new WatermarkReader<>(Item.class, "unknown", 10);
+   }
+}
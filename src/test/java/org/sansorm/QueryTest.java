@@ -178,5 +178,7 @@ public class QueryTest
       Set<Integer> generatedIds = inserted.stream().map(BaseClass::getId).collect(Collectors.toSet());
       assertThat(generatedIds).doesNotContain(0).as("Generated ids should be filled for passed objects");
       assertThat(generatedIds).hasSize(count).as("Generated ids should be unique");
+      assertThat(toInsert.stream().map(TargetClass1::getId).collect(Collectors.toSet())).isEqualTo(generatedIds).as("Generated ids should be set on the batched objects");
+      toInsert.forEach(obj -> assertThat(Q2Obj.byId(TargetClass1.class, obj.getId()).getString()).isEqualTo(obj.getString()));
    }
 }
@@ -141,6 +141,31 @@ public class SQLiteQueryTest {
          Set<Integer> generatedIds = inserted.stream().map(TargetClassSQL::getId).collect(Collectors.toSet());
          assertThat(generatedIds).doesNotContain(0).as("Generated ids should be filled for passed objects");
          assertThat(generatedIds).hasSize(count).as("Generated ids should be unique");
+         assertThat(toInsert.stream().map(TargetClassSQL::getId).collect(Collectors.toSet())).isEqualTo(generatedIds).as("Generated ids should be set on the batched objects");
+      }
+   }
+
+   @Test
+   public void testInsertListBatchedWithoutGeneratedKeys() throws IOException {
+      // given
+      int count = 5;
+      String u = UUID.randomUUID().toString();
+      List<TargetClassSQL> toInsert = IntStream.range(0, count).boxed()
+         .map(i -> new TargetClassSQL(u + String.valueOf(i), new Date(i)))
+         .collect(Collectors.toList());
+
+      // when
+      System.setProperty("com.zaxxer.q2o.batchWithoutGeneratedKeys", "true");
+      try (Closeable ignored = prepareSQLiteDatasource(null)) {
+         Q2ObjList.insertBatched(toInsert);
+         int inserted = Q2Obj.countFromClause(TargetClassSQL.class, "string LIKE ?", u + "%");
+
+         // then
+         assertThat(inserted).isEqualTo(count);
+         assertThat(toInsert).extracting(TargetClassSQL::getId).containsOnly((Integer) null).as("SQLite's driver returns no keys of a whole batch");
+      }
+      finally {
+         System.clearProperty("com.zaxxer.q2o.batchWithoutGeneratedKeys");
       }
    }
 }